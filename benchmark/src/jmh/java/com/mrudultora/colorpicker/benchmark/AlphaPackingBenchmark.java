@@ -0,0 +1,70 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.benchmark;
+
+import com.mrudultora.colorpicker.util.ColorConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alpha packing (alpha << 24 | color & 0x00FFFFFF) as done by ColorPickerPopUp, over a palette.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AlphaPackingBenchmark {
+    @Param({"15", "100", "1000", "10000", "100000"})
+    public int paletteSize;
+
+    private int[] colors;
+    private int[] packed;
+
+    @Setup
+    public void setUp() {
+        colors = Palettes.colors(paletteSize);
+        packed = new int[paletteSize];
+    }
+
+    @Benchmark
+    public int[] inline() {
+        for (int i = 0; i < colors.length; i++) {
+            int alpha = i & 0xFF;
+            packed[i] = alpha << 24 | colors[i] & 0x00FFFFFF;
+        }
+        return packed;
+    }
+
+    @Benchmark
+    public int[] withAlpha() {
+        for (int i = 0; i < colors.length; i++) {
+            packed[i] = ColorConverter.withAlpha(colors[i], i & 0xFF);
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.benchmark;
+
+import com.mrudultora.colorpicker.util.ColorConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HSV/RGB conversions done by ColorPickerPopUp for every touch event.
+ * Each invocation converts 1024 inputs.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ColorConversionBenchmark {
+    private static final int SIZE = 1024;
+
+    private final float[] hues = new float[SIZE];
+    private final float[] saturations = new float[SIZE];
+    private final float[] values = new float[SIZE];
+    private final float[] hsv = new float[3];
+    private int[] colors;
+
+    @Setup
+    public void setUp() {
+        colors = Palettes.colors(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            hues[i] = (i * 360f) / SIZE;
+            saturations[i] = (i % 101) / 100f;
+            values[i] = ((i * 7) % 101) / 100f;
+        }
+    }
+
+    @Benchmark
+    public void hsvToColor(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(ColorConverter.hsvToColor(hues[i], saturations[i], values[i]));
+        }
+    }
+
+    @Benchmark
+    public void hueToColor(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(ColorConverter.hueToColor(hues[i]));
+        }
+    }
+
+    @Benchmark
+    public void colorToHsv(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            ColorConverter.colorToHsv(colors[i], hsv);
+            blackhole.consume(hsv[0] + hsv[1] + hsv[2]);
+        }
+    }
+
+    @Benchmark
+    public void hslToColor(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(ColorConverter.hslToColor(hues[i], saturations[i], values[i]));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.benchmark;
+
+import com.mrudultora.colorpicker.util.ColorCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of hex strings: ColorCodec (used by setColors(ArrayList<String>)) against
+ * Color.parseColor(). Color.parseColor() is not available on JVM, so parseColor() below is the
+ * same algorithm (substring and Long.parseLong) used by Android for "#RRGGBB" and "#AARRGGBB".
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class HexParsingBenchmark {
+    @Param({"15", "100", "1000", "10000", "100000"})
+    public int paletteSize;
+
+    private ArrayList<String> hexList;
+    private int[] parsed;
+    private final char[] hexBuffer = new char[ColorCodec.MAX_HEX_LENGTH];
+
+    @Setup
+    public void setUp() {
+        hexList = new ArrayList<>(Arrays.asList(Palettes.hex(Palettes.colors(paletteSize))));
+        parsed = new int[paletteSize];
+    }
+
+    @Benchmark
+    public int[] parseColor() {
+        int i = 0;
+        for (String hex : hexList) {
+            parsed[i++] = parseColorLikeAndroid(hex);
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public int[] colorCodec() {
+        int i = 0;
+        for (String hex : hexList) {
+            parsed[i++] = (int) ColorCodec.parseAndroid(hex);
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public int formatHex() {
+        int length = 0;
+        for (int i = 0; i < paletteSize; i++) {
+            length += ColorCodec.formatHex(parsed[i], true, hexBuffer, 0);
+        }
+        return length;
+    }
+
+    static int parseColorLikeAndroid(String colorString) {
+        if (colorString.charAt(0) == '#') {
+            long color = Long.parseLong(colorString.substring(1), 16);
+            if (colorString.length() == 7) {
+                color |= 0x00000000ff000000L;
+            } else if (colorString.length() != 9) {
+                throw new IllegalArgumentException("Unknown color");
+            }
+            return (int) color;
+        }
+        throw new IllegalArgumentException("Unknown color");
+    }
+}
@@ -0,0 +1,114 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.benchmark;
+
+import com.mrudultora.colorpicker.ColorPalette;
+import com.mrudultora.colorpicker.ColorPaletteItemModel;
+import com.mrudultora.colorpicker.util.IntIntMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Palette lookups done by ColorAdapter:
+ * default color lookup (as in setDefaultColor()) and tick color lookup for every item
+ * (as in onBindViewHolder() when tick colors are set for some colors).
+ * Each lookup is measured over ArrayList&lt;ColorPaletteItemModel&gt; and over ColorPalette,
+ * tick color lookup also with IntIntMap (as used by ColorAdapter to compute the tick colors).
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PaletteLookupBenchmark {
+    @Param({"15", "100", "1000", "10000", "100000"})
+    public int paletteSize;
+
+    private ArrayList<ColorPaletteItemModel> colorsList;
+    private ColorPalette colorPalette;
+    private HashMap<Integer, Integer> colorItems;
+    private IntIntMap tickColorOverrides;
+    private int defaultColor;
+
+    @Setup
+    public void setUp() {
+        int[] colors = Palettes.colors(paletteSize);
+        colorsList = new ArrayList<>();
+        for (int color : colors) {
+            colorsList.add(new ColorPaletteItemModel(color, false));
+        }
+        colorPalette = new ColorPalette(colors);
+        // Worst case for a linear scan: the default color is the last item.
+        defaultColor = colors[colors.length - 1];
+        // Tick color overridden for every 10th color, as in setTickColor(int, int...).
+        colorItems = new HashMap<>();
+        tickColorOverrides = new IntIntMap();
+        for (int i = 0; i < colors.length; i += 10) {
+            colorItems.put(colors[i], colors[i]);
+            tickColorOverrides.put(colors[i], 0xFF000000);
+        }
+    }
+
+    @Benchmark
+    public int defaultColorLookup() {
+        for (int i = 0; i < colorsList.size(); i++) {
+            if (colorsList.get(i).getColor() == defaultColor) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int defaultColorLookupPalette() {
+        return colorPalette.indexOf(defaultColor);
+    }
+
+    @Benchmark
+    public void tickColorLookup(Blackhole blackhole) {
+        for (int i = 0; i < colorsList.size(); i++) {
+            blackhole.consume(colorItems.containsKey(colorsList.get(i).getColor()));
+        }
+    }
+
+    @Benchmark
+    public void tickColorLookupPalette(Blackhole blackhole) {
+        for (int i = 0; i < colorPalette.size(); i++) {
+            blackhole.consume(colorItems.containsKey(colorPalette.getColor(i)));
+        }
+    }
+
+    @Benchmark
+    public void tickColorLookupIntIntMap(Blackhole blackhole) {
+        for (int i = 0; i < colorPalette.size(); i++) {
+            blackhole.consume(tickColorOverrides.get(colorPalette.getColor(i), 0xFFFFFFFF));
+        }
+    }
+}
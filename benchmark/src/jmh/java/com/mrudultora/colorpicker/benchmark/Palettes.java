@@ -0,0 +1,62 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic palettes shared by the benchmarks, so that runs are comparable.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+final class Palettes {
+    private Palettes() {
+    }
+
+    /**
+     * Generates opaque colors. Every color appears once, so lookups do not stop early
+     * on duplicates.
+     *
+     * @param size (number of colors)
+     * @return colors
+     */
+    static int[] colors(int size) {
+        int[] colors = new int[size];
+        Random random = new Random(42);
+        int offset = random.nextInt(0x00FFFFFF);
+        for (int i = 0; i < size; i++) {
+            // 0x9E3779 is odd, so this visits distinct values for up to 2^24 colors.
+            colors[i] = 0xFF000000 | ((offset + i * 0x9E3779) & 0x00FFFFFF);
+        }
+        return colors;
+    }
+
+    /**
+     * Formats the colors as "#RRGGBB" strings (the format passed to setColors(ArrayList)).
+     *
+     * @param colors (colors)
+     * @return hex strings
+     */
+    static String[] hex(int[] colors) {
+        String[] hex = new String[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            hex[i] = String.format("#%06X", colors[i] & 0x00FFFFFF);
+        }
+        return hex;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Alpha slider used in ColorPickerPopUp. Draws the checkerboard and a vertical ramp from the
+ * current color (at top) to transparent (at bottom).
+ * <p>
+ * The ramp is an ALPHA_8 bitmap shader. For such shaders the color of paint is used and only
+ * the alpha comes from the bitmap, so changing the color just updates the paint in place.
+ * No shader or drawable is created when the color changes.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public class AlphaSliderView extends View {
+    private static final int RAMP_STEPS = 256;
+    private static Bitmap rampBitmap;
+
+    private final Paint checkerboardPaint = new Paint();
+    private final Paint rampPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Matrix rampMatrix = new Matrix();
+    private BitmapShader rampShader;
+    private int color = 0xFFFF0000;
+
+    public AlphaSliderView(Context context) {
+        super(context);
+        init();
+    }
+
+    public AlphaSliderView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public AlphaSliderView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        Bitmap checkerboard = BitmapFactory.decodeResource(getResources(), R.drawable.ic_alpha_checkboard);
+        if (checkerboard != null) {
+            checkerboardPaint.setShader(new BitmapShader(checkerboard, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT));
+        }
+        rampShader = new BitmapShader(getRampBitmap(), Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        rampPaint.setShader(rampShader);
+        rampPaint.setColor(color);
+    }
+
+    /**
+     * The ramp is same for every color, so a single bitmap is shared by all the sliders.
+     *
+     * @return bitmap (1 x RAMP_STEPS, alpha going from 255 to 0)
+     */
+    private static synchronized Bitmap getRampBitmap() {
+        if (rampBitmap == null) {
+            Bitmap bitmap = Bitmap.createBitmap(1, RAMP_STEPS, Bitmap.Config.ALPHA_8);
+            for (int i = 0; i < RAMP_STEPS; i++) {
+                bitmap.setPixel(0, i, (RAMP_STEPS - 1 - i) << 24);
+            }
+            rampBitmap = bitmap;
+        }
+        return rampBitmap;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rampMatrix.setScale(w, h / (float) RAMP_STEPS);
+        rampShader.setLocalMatrix(rampMatrix);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawRect(0f, 0f, getWidth(), getHeight(), checkerboardPaint);
+        canvas.drawRect(0f, 0f, getWidth(), getHeight(), rampPaint);
+    }
+
+    /**
+     * Sets the color at the top of ramp. Alpha of the color is ignored.
+     *
+     * @param color (int)
+     */
+    public void setColor(int color) {
+        color = color | 0xFF000000;
+        if (this.color == color) {
+            return;
+        }
+        this.color = color;
+        rampPaint.setColor(color);
+        invalidate();
+    }
+
+    public int getColor() {
+        return color;
+    }
+}
@@ -18,10 +18,8 @@ package com.mrudultora.colorpicker;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.graphics.Color;
+import android.content.res.Resources;
 import android.graphics.drawable.Drawable;
-
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -31,14 +29,20 @@ import androidx.cardview.widget.CardView;
 import androidx.core.content.ContextCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.widget.ImageViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.mrudultora.colorpicker.listeners.OnColorItemClickListener;
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
 import com.mrudultora.colorpicker.util.ColorItemShape;
 import com.mrudultora.colorpicker.util.ColorUtil;
+import com.mrudultora.colorpicker.util.IntIntMap;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * @author Mrudul Tora (mrudultora@gmail.com)
@@ -46,127 +50,399 @@ import java.util.HashMap;
  */
 public class ColorAdapter extends RecyclerView.Adapter<ColorAdapter.ViewHolder> {
 
-    final ArrayList<ColorPaletteItemModel> colorsList;
-    private HashMap<Integer, Integer> colorItems;
+    final ColorPalette colorPalette;
+    private IntIntMap tickColorOverrides;        // color -> tick color, for particular colors.
+    private int[] tickColors;                    // tick color of each position, if there are overrides.
     private final Context context;
     private int colorPosition = -1;              // would be used if none of the color is selected and there is an default color.
     private ColorItemShape colorItemShape;       // default is square.
     private int drawableRes = -1;
-    private int tickMarkColor = -1;              // the default color is white.
+    private int tickMarkColor = -1;              // the default color is white (-1 is also Color.WHITE).
     private final OnColorItemClickListener onColorItemClickListener;
     private boolean cardSizeChanged = false;
     private boolean tickSizeChanged = false;
-    private boolean multiTickColor = false;
     private float tickSizeDimen = 0f;                   // when equals 0 (default used would be 24dp)
     private float cardViewDimen = 0f;                 // when equals 0 (default used would be 45dp)
+    private OnPickerMetricsListener metricsListener;
+    private BindProfile bindProfile;
+    private ColorPickerConfig config;            // shares its bind profile, if not null.
+    private boolean bound = false;               // whether an item has been bound (for tracing the first bind).
+    private final EnumSet<Change> pendingChanges = EnumSet.noneOf(Change.class);
+    private boolean changesDispatchPosted = false;
+    private int maxScheduledGeneration = 0;      // generation of the last submitted palette.
+    private int placeholderCount = 0;            // items shown while the colors are loading.
+    private int paletteVersion = 0;              // incremented when colors are appended or placeholders change.
+    private final Runnable dispatchChanges = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPendingChanges();
+        }
+    };
 
-    public ColorAdapter(ArrayList<ColorPaletteItemModel> colorsList,
+    /**
+     * Payloads of partial rebinds.
+     */
+    enum Change {
+        SELECTION,      // check state (tick visibility) of item.
+        TICK_COLOR,     // tint of tick.
+        SIZE            // size of item and tick (applied through the bind profile).
+    }
+
+    public ColorAdapter(ColorPalette colorPalette,
                         Context context,
                         ColorItemShape colorItemShape,
                         OnColorItemClickListener onColorItemClickListener) {
-        this.colorsList = colorsList;
+        this.colorPalette = colorPalette;
         this.context = context;
         this.colorItemShape = colorItemShape;
         this.onColorItemClickListener = onColorItemClickListener;
+        setHasStableIds(true);
     }
 
-    public ColorAdapter(ArrayList<ColorPaletteItemModel> colorsList,
+    public ColorAdapter(ColorPalette colorPalette,
                         Context context,
                         int drawableRes,
                         OnColorItemClickListener onColorItemClickListener) {
-        this.colorsList = colorsList;
+        this.colorPalette = colorPalette;
         this.context = context;
         this.drawableRes = drawableRes;
         this.onColorItemClickListener = onColorItemClickListener;
+        setHasStableIds(true);
+    }
+
+    /**
+     * @deprecated Use {@link #ColorAdapter(ColorPalette, Context, ColorItemShape, OnColorItemClickListener)}.
+     * Selection state is no longer written back to the items of list.
+     */
+    @Deprecated
+    public ColorAdapter(ArrayList<ColorPaletteItemModel> colorsList,
+                        Context context,
+                        ColorItemShape colorItemShape,
+                        OnColorItemClickListener onColorItemClickListener) {
+        this(toColorPalette(colorsList), context, colorItemShape, onColorItemClickListener);
+    }
+
+    /**
+     * @deprecated Use {@link #ColorAdapter(ColorPalette, Context, int, OnColorItemClickListener)}.
+     * Selection state is no longer written back to the items of list.
+     */
+    @Deprecated
+    public ColorAdapter(ArrayList<ColorPaletteItemModel> colorsList,
+                        Context context,
+                        int drawableRes,
+                        OnColorItemClickListener onColorItemClickListener) {
+        this(toColorPalette(colorsList), context, drawableRes, onColorItemClickListener);
+    }
+
+    private static ColorPalette toColorPalette(ArrayList<ColorPaletteItemModel> colorsList) {
+        ColorPalette colorPalette = new ColorPalette(colorsList.size());
+        for (int i = 0; i < colorsList.size(); i++) {
+            colorPalette.add(colorsList.get(i).getColor());
+            colorPalette.setChecked(i, colorsList.get(i).isCheck());
+        }
+        return colorPalette;
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(context).inflate(R.layout.layout_color_item, parent, false);
-        return new ViewHolder(view, onColorItemClickListener);
+        BindProfile profile = getBindProfile();
+        // Pooled items may outlive the activity, so they must not keep it.
+        ColorSwatchView swatchView = new ColorSwatchView(ColorPickerViewPool.isEnabled() ? context.getApplicationContext() : context);
+        RecyclerView.LayoutParams layoutParams = new RecyclerView.LayoutParams(profile.itemSizePx, profile.itemSizePx);
+        layoutParams.setMargins(profile.itemMarginPx, profile.itemMarginPx, profile.itemMarginPx, profile.itemMarginPx);
+        swatchView.setLayoutParams(layoutParams);
+        return new ViewHolder(swatchView);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        holder.itemCardView.setCardBackgroundColor(colorsList.get(position).getColor());
+        onBindViewHolder(holder, position, Collections.emptyList());
+    }
 
-        if (colorsList.get(position).isCheck()) {
-            holder.itemCheckImageView.setVisibility(View.VISIBLE);
-        } else {
-            holder.itemCheckImageView.setVisibility(View.GONE);
+    /**
+     * Binds only the parts named by payloads (see Change), or the whole item if there are none.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        boolean firstBind = !bound;
+        if (firstBind) {
+            bound = true;
+            ColorPickerTracing.beginSection("ColorAdapter#firstBind");
         }
+        try {
+            if (metricsListener == null) {
+                bindItem(holder, position, payloads);
+            } else {
+                ColorPickerTracing.beginSection("ColorAdapter#onBindViewHolder");
+                try {
+                    long start = System.nanoTime();
+                    bindItem(holder, position, payloads);
+                    metricsListener.onItemBound(position, System.nanoTime() - start);
+                } finally {
+                    ColorPickerTracing.endSection();
+                }
+            }
+        } finally {
+            if (firstBind) {
+                ColorPickerTracing.endSection();
+            }
+        }
+    }
+
+    private void bindItem(ViewHolder holder, int position, List<Object> payloads) {
+        // A holder may come from the pool shared with other adapters.
+        holder.adapter = this;
+        if (holder.swatchView == null) {
+            bindLegacyItem(holder, position);
+            return;
+        }
+        BindProfile profile = getBindProfile();
+        if (holder.appliedProfile != profile) {
+            // Also covers Change.SIZE.
+            applyBindProfile(holder, profile);
+        }
+        if (position >= colorPalette.size()) {
+            holder.swatchView.setColor(profile.placeholderColor);
+            holder.swatchView.setChecked(false);
+            return;
+        }
+        if (payloads.isEmpty()) {
+            bindColor(holder, position);
+            bindSelection(holder, position);
+            bindTickColor(holder, position);
+            return;
+        }
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            if (payload == Change.SELECTION) {
+                bindSelection(holder, position);
+            } else if (payload == Change.TICK_COLOR) {
+                bindTickColor(holder, position);
+            }
+        }
+    }
 
-        if (tickMarkColor != -1 && !multiTickColor) {
-            ImageViewCompat.setImageTintList(holder.itemCheckImageView, ColorStateList.valueOf(tickMarkColor));
+    /**
+     * Binds a holder created with the deprecated ViewHolder(View, OnColorItemClickListener), whose
+     * view is layout_color_item. Only its color, check and tick color are bound.
+     */
+    private void bindLegacyItem(ViewHolder holder, int position) {
+        boolean placeholder = position >= colorPalette.size();
+        if (holder.itemCardView != null) {
+            holder.itemCardView.setCardBackgroundColor(placeholder ? getBindProfile().placeholderColor : colorPalette.getColor(position));
+        }
+        if (holder.itemCheckImageView != null) {
+            holder.itemCheckImageView.setVisibility(!placeholder && colorPalette.isChecked(position) ? View.VISIBLE : View.GONE);
+            if (!placeholder) {
+                int tickColor = tickColors != null ? tickColors[position] : tickMarkColor;
+                ImageViewCompat.setImageTintList(holder.itemCheckImageView, ColorStateList.valueOf(tickColor));
+            }
         }
+    }
+
+    private void bindColor(ViewHolder holder, int position) {
+        holder.swatchView.setColor(colorPalette.getColor(position));
+    }
+
+    private void bindSelection(ViewHolder holder, int position) {
+        holder.swatchView.setChecked(colorPalette.isChecked(position));
+    }
 
-        if (tickSizeChanged) {
-            holder.itemCheckImageView.getLayoutParams().height = ColorUtil.dpToPixel(context, tickSizeDimen);
-            holder.itemCheckImageView.getLayoutParams().width = ColorUtil.dpToPixel(context, tickSizeDimen);
+    private void bindTickColor(ViewHolder holder, int position) {
+        holder.swatchView.setTickColor(tickColors != null ? tickColors[position] : tickMarkColor);
+    }
+
+    /**
+     * Stable id of item made of the occurrence index of its color among equal colors (high 32 bits) and the color
+     * (low 32 bits), so an item keeps its id when it moves. Placeholders come after the palette, so their position
+     * never collides with an occurrence index.
+     */
+    @Override
+    public long getItemId(int position) {
+        if (position >= colorPalette.size()) {
+            return (long) position << 32;      // placeholder
         }
+        return ((long) colorPalette.occurrenceOf(position) << 32) | (colorPalette.getColor(position) & 0xFFFFFFFFL);
+    }
 
-        if (cardSizeChanged) {
-            holder.itemCardView.getLayoutParams().height = ColorUtil.dpToPixel(context, cardViewDimen);
-            holder.itemCardView.getLayoutParams().width = ColorUtil.dpToPixel(context, cardViewDimen);
-            holder.itemCheckImageView.getLayoutParams().width = ColorUtil.dpToPixel(context, cardViewDimen / 2);
-            holder.itemCheckImageView.getLayoutParams().height = ColorUtil.dpToPixel(context, cardViewDimen / 2);
+    /**
+     * Gets the bind profile, computing it if any of the setters has changed the configuration
+     * since last bind.
+     */
+    BindProfile getBindProfile() {
+        if (tickColorOverrides != null && (tickColors == null || tickColors.length != colorPalette.size())) {
+            updateTickColors();
+        }
+        if (bindProfile == null) {
+            bindProfile = config != null ? config.getBindProfile(this, context.getResources()) : new BindProfile(this);
         }
+        return bindProfile;
+    }
 
-        if (colorItems != null && multiTickColor) {
-            if (colorItems.containsKey(colorsList.get(position).getColor())) {
-                ImageViewCompat.setImageTintList(holder.itemCheckImageView, ColorStateList.valueOf(tickMarkColor));
-            } else {
-                ImageViewCompat.setImageTintList(holder.itemCheckImageView, ColorStateList.valueOf(Color.WHITE));
+    /**
+     * Applies sizes, shape and custom drawable of the profile. Called only when a holder is bound
+     * for first time or after the profile has changed.
+     */
+    private void applyBindProfile(ViewHolder holder, BindProfile profile) {
+        ColorSwatchView swatchView = holder.swatchView;
+        ViewGroup.LayoutParams layoutParams = swatchView.getLayoutParams();
+        if (layoutParams.width != profile.itemSizePx || layoutParams.height != profile.itemSizePx) {
+            layoutParams.width = profile.itemSizePx;
+            layoutParams.height = profile.itemSizePx;
+            swatchView.setLayoutParams(layoutParams);
+        }
+        swatchView.setTickSize(profile.tickSizePx);
+        if (colorItemShape != null) {
+            swatchView.setShape(colorItemShape);
+        }
+        if (holder.appliedDrawableRes != drawableRes) {
+            Drawable drawable = null;
+            if (drawableRes != -1) {
+                drawable = profile.itemDrawableState != null
+                        ? profile.itemDrawableState.newDrawable(context.getResources())
+                        : ContextCompat.getDrawable(context, drawableRes);
             }
+            swatchView.setItemDrawable(drawable != null ? DrawableCompat.wrap(drawable.mutate()) : null);
+            holder.appliedDrawableRes = drawableRes;
         }
+        holder.appliedProfile = profile;
+    }
 
-        if (colorItemShape == ColorItemShape.CIRCLE) {
-            if (cardSizeChanged) {
-                holder.itemCardView.setRadius(ColorUtil.dpToPixel(context, cardViewDimen / 2));
+    /**
+     * Everything a bind needs other than the color, tick color and check state of item: sizes in
+     * pixels, placeholder color and constant state of custom drawable. Computed once per configuration (the setters
+     * of adapter discard it) and shared by all the holders, so that a bind does not convert dp to
+     * pixels or load drawables.
+     */
+    static final class BindProfile {
+        final int itemSizePx;
+        final int itemMarginPx;
+        final int tickSizePx;
+        final int placeholderColor;
+        final Drawable.ConstantState itemDrawableState;
+
+        BindProfile(ColorAdapter adapter) {
+            Context context = adapter.context;
+            Resources resources = context.getResources();
+            itemMarginPx = resources.getDimensionPixelSize(R.dimen.palette_item_margin);
+            if (adapter.cardSizeChanged) {
+                itemSizePx = ColorUtil.dpToPixel(context, adapter.cardViewDimen);
+                tickSizePx = ColorUtil.dpToPixel(context, adapter.cardViewDimen / 2);
             } else {
-                holder.itemCardView.setRadius(ColorUtil.dpToPixel(context, 22.5f));
+                itemSizePx = resources.getDimensionPixelSize(R.dimen.palette_item_width);
+                tickSizePx = adapter.tickSizeChanged
+                        ? ColorUtil.dpToPixel(context, adapter.tickSizeDimen)
+                        : resources.getDimensionPixelSize(R.dimen.palette_item_tick_size);
             }
+            placeholderColor = ContextCompat.getColor(context, R.color.palette_item_placeholder);
+            Drawable drawable = adapter.drawableRes != -1 ? ContextCompat.getDrawable(context, adapter.drawableRes) : null;
+            itemDrawableState = drawable != null ? drawable.getConstantState() : null;
         }
+    }
 
-        if (drawableRes != -1) {
-            Drawable drawable = ContextCompat.getDrawable(context, drawableRes);
-            if (drawable == null)
-                return;
-            DrawableCompat.setTint(DrawableCompat.wrap(drawable).mutate(), colorsList.get(position).getColor());
-            holder.itemCardView.setBackground(drawable);
+    @Override
+    public int getItemCount() {
+        return Math.max(colorPalette.size(), placeholderCount);
+    }
+
+    /**
+     * Sets the number of items to show while colors are loading. Positions from the size of
+     * palette up to count are shown as placeholders.
+     *
+     * @param count (total number of items expected, 0 to remove the placeholders)
+     */
+    void setPlaceholderCount(int count) {
+        if (placeholderCount == count) {
+            return;
+        }
+        paletteVersion++;
+        int oldCount = getItemCount();
+        placeholderCount = count;
+        int newCount = getItemCount();
+        if (newCount > oldCount) {
+            notifyItemRangeInserted(oldCount, newCount - oldCount);
+        } else if (newCount < oldCount) {
+            notifyItemRangeRemoved(newCount, oldCount - newCount);
+        }
+    }
+
+    /**
+     * Adds colors[offset, offset + count) at the end of palette. Placeholders at those positions
+     * are replaced (notified as changed), the rest is notified as inserted.
+     */
+    void appendColors(int[] colors, int offset, int count) {
+        paletteVersion++;
+        int oldSize = colorPalette.size();
+        int oldCount = getItemCount();
+        colorPalette.addAll(colors, offset, count);
+        updateTickColors();
+        int newSize = colorPalette.size();
+        if (oldCount > oldSize) {
+            notifyItemRangeChanged(oldSize, Math.min(newSize, oldCount) - oldSize);
+        }
+        if (newSize > oldCount) {
+            notifyItemRangeInserted(oldCount, newSize - oldCount);
         }
     }
 
     @Override
-    public int getItemCount() {
-        return colorsList.size();
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        holder.adapter = null;
+    }
+
+    /**
+     * @param listener (listener of a holder created with the deprecated constructor, or null to
+     *                 use the listener of adapter)
+     */
+    private void onItemClick(int position, OnColorItemClickListener listener) {
+        if (position >= colorPalette.size()) {
+            return;     // placeholder
+        }
+        selectPosition(position);
+        (listener != null ? listener : onColorItemClickListener).onColorItemClick(position);
     }
 
-    public class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+    /**
+     * Holder of a palette item. It is not tied to the adapter that created it (the adapter is set
+     * on every bind), so holders can be shared between adapters through ColorPickerViewPool.
+     */
+    public static class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
+        ColorSwatchView swatchView;         // null if created with the deprecated constructor.
+        ColorAdapter adapter;               // adapter which has bound this holder, null while recycled.
+        BindProfile appliedProfile;
+        int appliedDrawableRes = -1;
         CardView itemCardView;
         AppCompatImageView itemCheckImageView;
         OnColorItemClickListener colorItemClickListener;
 
+        public ViewHolder(@NonNull ColorSwatchView swatchView) {
+            super(swatchView);
+            this.swatchView = swatchView;
+            swatchView.setOnClickListener(this);
+        }
+
+        /**
+         * @deprecated Items are drawn by ColorSwatchView, use {@link #ViewHolder(ColorSwatchView)}.
+         * itemView is expected to be layout_color_item (only its color, check and tick color are
+         * bound), and its clicks are reported to colorItemClickListener.
+         */
+        @Deprecated
         public ViewHolder(@NonNull View itemView, OnColorItemClickListener colorItemClickListener) {
             super(itemView);
             itemCardView = itemView.findViewById(R.id.itemCardView);
             itemCheckImageView = itemView.findViewById(R.id.itemCheckImageView);
-            itemCardView.setOnClickListener(this);
+            itemView.setOnClickListener(this);
             this.colorItemClickListener = colorItemClickListener;
         }
 
         @Override
         public void onClick(View view) {
             int position = getAdapterPosition();
-            if (colorPosition != -1 && colorPosition != position) {
-                colorsList.get(colorPosition).setCheck(false);
-                notifyItemChanged(colorPosition);
+            if (position == RecyclerView.NO_POSITION || adapter == null) {
+                return;
             }
-            colorsList.get(position).setCheck(true);
-            notifyItemChanged(position);
-            colorItemClickListener.onColorItemClick(position);
-            colorPosition = position;
+            adapter.onItemClick(position, colorItemClickListener);
         }
     }
 
@@ -177,16 +453,63 @@ public class ColorAdapter extends RecyclerView.Adapter<ColorAdapter.ViewHolder>
      * @param defaultColor (default color)
      */
     public void setDefaultColor(int defaultColor) {
-        for (int i = 0; i < colorsList.size(); i++) {
-            if (colorsList.get(i).getColor() == defaultColor) {
-                colorsList.get(i).setCheck(true);
-                colorPosition = i;
-                notifyItemChanged(i);
-                break;
-            }
+        if (colorPalette.indexOf(defaultColor) != -1) {
+            selectColor(defaultColor);
         }
     }
 
+    /**
+     * Selects (shows tick mark on) the first item of color and removes the tick mark from the
+     * previously selected item. If the color is not present in the list, then none of the colors
+     * would be selected. Uses the index of palette, so it does not scan the list.
+     *
+     * @param color (color to be selected)
+     * @return position of selected item (or -1 if the color is not present)
+     */
+    public int selectColor(int color) {
+        int position = colorPalette.indexOf(color);
+        selectPosition(position);
+        return position;
+    }
+
+    /**
+     * Gets all the positions of color in the list (a list may have duplicate colors).
+     *
+     * @param color (color int value)
+     * @return positions in ascending order (empty if the color is not present)
+     */
+    public int[] findPositions(int color) {
+        return colorPalette.findPositions(color);
+    }
+
+    /**
+     * Removes the tick mark from the selected item, if any.
+     */
+    public void clearSelection() {
+        selectPosition(-1);
+    }
+
+    private void selectPosition(int position) {
+        if (colorPosition != -1 && colorPosition != position) {
+            colorPalette.setChecked(colorPosition, false);
+            notifyItemChanged(colorPosition, Change.SELECTION);
+        }
+        if (position != -1) {
+            colorPalette.setChecked(position, true);
+            notifyItemChanged(position, Change.SELECTION);
+        }
+        colorPosition = position;
+    }
+
+    /**
+     * Sets the listener to receive bind durations. Passing null disables the metrics.
+     *
+     * @param metricsListener (listener)
+     */
+    public void setMetricsListener(OnPickerMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     public int getColorPosition() {
         return colorPosition;
     }
@@ -198,25 +521,205 @@ public class ColorAdapter extends RecyclerView.Adapter<ColorAdapter.ViewHolder>
      */
     public void setTickMarkColor(int tickMarkColor) {
         this.tickMarkColor = tickMarkColor;
-        notifyDataSetChanged();
+        updateTickColors();
+        scheduleChange(Change.TICK_COLOR);
+    }
+
+    /**
+     * Sets the color of tick mark on particular colors. Colors not present in tickColorOverrides
+     * use the tick mark color set using setTickMarkColor() (white by default).
+     * The tick color of every position is computed here once, so binding does not need a lookup.
+     *
+     * @param tickColorOverrides (color -> tick color, or null to remove the overrides)
+     */
+    public void setTickMarkColors(IntIntMap tickColorOverrides) {
+        this.tickColorOverrides = tickColorOverrides;
+        updateTickColors();
+        scheduleChange(Change.TICK_COLOR);
+    }
+
+    private void updateTickColors() {
+        if (tickColorOverrides == null) {
+            tickColors = null;
+            return;
+        }
+        int size = colorPalette.size();
+        if (tickColors == null || tickColors.length != size) {
+            tickColors = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            tickColors[i] = tickColorOverrides.get(colorPalette.getColor(i), tickMarkColor);
+        }
+    }
+
+    /**
+     * Uses the bind profile of config (shared by all the adapters of config) instead of computing
+     * one. The sizes of config must already be applied (see ColorPickerConfig.applyTo()).
+     */
+    void setConfig(ColorPickerConfig config) {
+        this.config = config;
+        bindProfile = null;
     }
 
     public void customCardSize(float dimen) {
+        config = null;
         cardSizeChanged = true;
         cardViewDimen = dimen;
-        notifyDataSetChanged();
+        bindProfile = null;
+        scheduleChange(Change.SIZE);
     }
 
     public void customTickSize(float dimen) {
+        config = null;
         tickSizeChanged = true;
         tickSizeDimen = dimen;
-        notifyDataSetChanged();
+        bindProfile = null;
+        scheduleChange(Change.SIZE);
     }
 
+    /**
+     * @deprecated Use {@link #setTickMarkColors(IntIntMap)}, which allows a different tick color
+     * for every group of colors.
+     */
+    @Deprecated
     public void customTickMarkColorForSomeColors(int tickMarkColor, HashMap<Integer, Integer> map) {
-        this.colorItems = map;
-        this.multiTickColor = true;
-        this.tickMarkColor = tickMarkColor;
-        notifyDataSetChanged();
+        IntIntMap tickColorOverrides = new IntIntMap(map.size());
+        for (Integer color : map.keySet()) {
+            tickColorOverrides.put(color, tickMarkColor);
+        }
+        setTickMarkColors(tickColorOverrides);
+    }
+
+    /**
+     * Replaces the colors of palette with colors. The difference from current colors is computed on
+     * the background executor (like AsyncListDiffer) and then, on main thread, the palette is
+     * updated and only the inserted, removed and moved items are notified. The selected color keeps
+     * its selection if it is still present. If colors are submitted again before the difference is
+     * computed, only the last submission is applied. If colors are appended (or placeholders
+     * changed) meanwhile, the difference is stale and all the items are replaced instead.
+     * <p>
+     * Must be called on main thread.
+     *
+     * @param colors         (new colors, copied before returning)
+     * @param commitCallback (run on main thread once the colors are applied, can be null)
+     */
+    public void submitColors(int[] colors, final Runnable commitCallback) {
+        setPlaceholderCount(0);
+        final int generation = ++maxScheduledGeneration;
+        final int version = paletteVersion;
+        final int[] newColors = colors.clone();
+        final int[] oldColors = colorPalette.toArray();
+        if (oldColors.length == 0 || newColors.length == 0) {
+            applyColors(newColors, null);
+            if (commitCallback != null) {
+                commitCallback.run();
+            }
+            return;
+        }
+        ColorPickerExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new ColorsDiffCallback(oldColors, newColors));
+                ColorPickerExecutors.mainThread().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != maxScheduledGeneration) {
+                            return;
+                        }
+                        applyColors(newColors, version == paletteVersion ? diffResult : null);
+                        if (commitCallback != null) {
+                            commitCallback.run();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Sets the colors of palette and notifies the changes. Without a diff result (one of palettes
+     * is empty, or the difference is stale) the old items are removed and the new ones inserted.
+     */
+    private void applyColors(int[] newColors, DiffUtil.DiffResult diffResult) {
+        int oldCount = getItemCount();
+        placeholderCount = 0;
+        int newPosition = -1;
+        if (colorPosition != -1 && diffResult != null) {
+            newPosition = diffResult.convertOldPositionToNew(colorPosition);
+            if (newPosition == RecyclerView.NO_POSITION) {
+                newPosition = -1;
+            }
+        }
+        colorPalette.setColors(newColors);
+        colorPosition = newPosition;
+        if (newPosition != -1) {
+            colorPalette.setChecked(newPosition, true);
+        }
+        updateTickColors();
+        if (diffResult != null) {
+            diffResult.dispatchUpdatesTo(this);
+        } else {
+            notifyItemRangeRemoved(0, oldCount);
+            notifyItemRangeInserted(0, newColors.length);
+        }
+    }
+
+    /**
+     * Items are the same if their colors are equal. As an item is just its color, same items
+     * always have the same contents.
+     */
+    private static final class ColorsDiffCallback extends DiffUtil.Callback {
+        private final int[] oldColors;
+        private final int[] newColors;
+
+        ColorsDiffCallback(int[] oldColors, int[] newColors) {
+            this.oldColors = oldColors;
+            this.newColors = newColors;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldColors.length;
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newColors.length;
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return oldColors[oldItemPosition] == newColors[newItemPosition];
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return true;
+        }
+    }
+
+    /**
+     * Records the change and notifies it (as a payload for all the items) once the current
+     * message on main thread is done, so setters called back to back result in one bind pass.
+     * Nothing is notified while the adapter is not attached to a RecyclerView, as the first
+     * layout binds every item anyway.
+     */
+    private void scheduleChange(Change change) {
+        if (!hasObservers()) {
+            return;
+        }
+        pendingChanges.add(change);
+        if (!changesDispatchPosted) {
+            changesDispatchPosted = true;
+            ColorPickerExecutors.mainThread().post(dispatchChanges);
+        }
+    }
+
+    private void dispatchPendingChanges() {
+        changesDispatchPosted = false;
+        for (Change change : pendingChanges) {
+            notifyItemRangeChanged(0, getItemCount(), change);
+        }
+        pendingChanges.clear();
     }
 }
@@ -0,0 +1,246 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import com.mrudultora.colorpicker.util.IntIntMap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Colors of the palette shown by ColorPickerDialog and ColorPickerBottomSheetDialog.
+ * Colors are stored in an int array and the selection (check) state in a BitSet, so a palette
+ * of any size is just two arrays instead of one object per color.
+ * <p>
+ * Positions of a color are found using an index (color to first position, and the next position
+ * of same color for every position), so lookups do not scan the palette. The index is built on
+ * first lookup and built again on first lookup after the colors change.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class ColorPalette {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] colors;
+    private int size;
+    private final BitSet checked = new BitSet();
+    private IntIntMap firstPositions;   // null if the index is not built.
+    private int[] nextPositions;
+    private int[] occurrences;          // number of equal colors before each position.
+
+    public ColorPalette() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ColorPalette(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative.");
+        }
+        colors = new int[capacity];
+    }
+
+    /**
+     * Creates a palette with a copy of the colors.
+     *
+     * @param colors (colors int values)
+     */
+    public ColorPalette(int[] colors) {
+        this.colors = Arrays.copyOf(colors, colors.length);
+        this.size = colors.length;
+    }
+
+    /**
+     * Adds the color at the end of palette.
+     *
+     * @param color (color int value)
+     */
+    public void add(int color) {
+        ensureCapacity(size + 1);
+        colors[size++] = color;
+        firstPositions = null;
+    }
+
+    /**
+     * Adds the colors at the end of palette.
+     *
+     * @param colors (colors int values)
+     */
+    public void addAll(int... colors) {
+        addAll(colors, 0, colors.length);
+    }
+
+    /**
+     * Adds count colors starting from offset at the end of palette.
+     *
+     * @param colors (colors int values)
+     * @param offset (index of first color to add)
+     * @param count  (number of colors to add)
+     */
+    public void addAll(int[] colors, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > colors.length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", count: " + count + ", length: " + colors.length);
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(colors, offset, this.colors, size, count);
+        size += count;
+        firstPositions = null;
+    }
+
+    /**
+     * Grows the storage (if needed), so that capacity colors can be added without growing again.
+     *
+     * @param capacity (minimum capacity)
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > colors.length) {
+            colors = Arrays.copyOf(colors, Math.max(capacity, colors.length + (colors.length >> 1)));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getColor(int position) {
+        checkPosition(position);
+        return colors[position];
+    }
+
+    public boolean isChecked(int position) {
+        checkPosition(position);
+        return checked.get(position);
+    }
+
+    public void setChecked(int position, boolean check) {
+        checkPosition(position);
+        checked.set(position, check);
+    }
+
+    /**
+     * Gets the position of first color equal to color.
+     *
+     * @param color (color int value)
+     * @return position (or -1 if the color is not present in the palette)
+     */
+    public int indexOf(int color) {
+        buildIndex();
+        return firstPositions.get(color, -1);
+    }
+
+    /**
+     * Gets all the positions of color (a palette may have duplicate colors).
+     *
+     * @param color (color int value)
+     * @return positions in ascending order (empty if the color is not present in the palette)
+     */
+    public int[] findPositions(int color) {
+        buildIndex();
+        int first = firstPositions.get(color, -1);
+        int count = 0;
+        for (int position = first; position != -1; position = nextPositions[position]) {
+            count++;
+        }
+        int[] positions = new int[count];
+        int i = 0;
+        for (int position = first; position != -1; position = nextPositions[position]) {
+            positions[i++] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * Gets the number of colors equal to the color at position that come before it, so the first occurrence of a
+     * color is 0, the second is 1 and so on.
+     *
+     * @param position (position of color in palette)
+     * @return occurrence index of the color at position
+     */
+    int occurrenceOf(int position) {
+        checkPosition(position);
+        buildIndex();
+        return occurrences[position];
+    }
+
+    private void buildIndex() {
+        if (firstPositions != null) {
+            return;
+        }
+        IntIntMap index = new IntIntMap(size);
+        if (nextPositions == null || nextPositions.length < size) {
+            nextPositions = new int[colors.length];
+            occurrences = new int[colors.length];
+        }
+        // From the end, so every color ends up with its first position and a chain in ascending order.
+        for (int i = size - 1; i >= 0; i--) {
+            nextPositions[i] = index.get(colors[i], -1);
+            index.put(colors[i], i);
+        }
+        for (int i = 0; i < size; i++) {
+            occurrences[i] = index.get(colors[i], -1) == i ? 0 : occurrences[i];
+            if (nextPositions[i] != -1) {
+                occurrences[nextPositions[i]] = occurrences[i] + 1;
+            }
+        }
+        firstPositions = index;
+    }
+
+    /**
+     * Replaces all the colors of palette with a copy of colors and clears the selection state.
+     *
+     * @param colors (colors int values)
+     */
+    public void setColors(int[] colors) {
+        clear();
+        addAll(colors, 0, colors.length);
+    }
+
+    /**
+     * Clears the selection state of all the colors.
+     */
+    public void clearChecked() {
+        checked.clear();
+    }
+
+    /**
+     * Removes all the colors and their selection state.
+     */
+    public void clear() {
+        size = 0;
+        checked.clear();
+        firstPositions = null;
+    }
+
+    /**
+     * @return copy of the colors
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(colors, size);
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("position: " + position + ", size: " + size);
+        }
+    }
+}
@@ -19,7 +19,10 @@ package com.mrudultora.colorpicker;
 /**
  * @author Mrudul Tora (mrudultora@gmail.com)
  * @since 1 May, 2021
+ * @deprecated Palettes are stored in {@link ColorPalette} (colors and selection state), which
+ * does not need an object per color.
  */
+@Deprecated
 public class ColorPaletteItemModel {
     private int color;
     private boolean check;
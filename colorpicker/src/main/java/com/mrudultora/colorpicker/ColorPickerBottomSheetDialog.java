@@ -18,13 +18,13 @@ package com.mrudultora.colorpicker;
 
 import android.content.Context;
 import android.content.res.TypedArray;
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.RelativeLayout;
 
 import androidx.appcompat.widget.AppCompatButton;
 import androidx.appcompat.widget.AppCompatTextView;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -32,6 +32,7 @@ import com.google.android.material.bottomsheet.BottomSheetBehavior;
 import com.google.android.material.bottomsheet.BottomSheetDialog;
 import com.mrudultora.colorpicker.listeners.OnColorItemClickListener;
 import com.mrudultora.colorpicker.listeners.OnDirectSelectColorListener;
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
 import com.mrudultora.colorpicker.listeners.OnSelectColorListener;
 import com.mrudultora.colorpicker.util.ColorItemShape;
 
@@ -44,42 +45,106 @@ import java.util.HashMap;
  */
 public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
 
-    private final Context context;
+    private Context context;                    // null once released along with its lifecycle.
 
-    private final RecyclerView recyclerViewColors;
-    private final View bottomSheetDialogView;
-    private final RelativeLayout colorPaletteRelLayout;
-    private final AppCompatTextView dialogTitleText;
-    private final View dividerView;
-    private final AppCompatButton positiveButton;
-    private final AppCompatButton negativeButton;
+    // Views are released when the lifecycle owner is destroyed, and inflated again by show().
+    private RecyclerView recyclerViewColors;
+    private View bottomSheetDialogView;
+    private RelativeLayout colorPaletteRelLayout;
+    private AppCompatTextView dialogTitleText;
+    private View dividerView;
+    private AppCompatButton positiveButton;
+    private AppCompatButton negativeButton;
     private BottomSheetDialog bottomSheetDialog;
 
     private ColorAdapter colorAdapter;
 
     private  int selectedColorPosition = -1;
 
-    private final boolean cardSizeChanged ;
-    private final boolean tickSizeChanged;
-    private final boolean positiveButtonTextChanged;
-    private final boolean negativeButtonTextChanged;
-    private final boolean titleTextChanged;
+    private final ColorPickerConfig config;
     private final int columns;
     private final int defaultColor;
     private final int itemDrawableRes;
-    private final int tickColor;
     private final int dividerViewColor;
     private final ColorItemShape colorShape;
-    private final ArrayList<ColorPaletteItemModel> colorsList;
-    private final HashMap<Integer, Integer> colorItems;
-    private final String dialogTitle;
-    private final String dialogPositiveButtonText;
-    private final String dialogNegativeButtonText;
-    private final OnDirectSelectColorListener directSelectColorListener;
-    private final OnSelectColorListener selectColorListener;
-    private final float tickSizeDimen;                 // when equals 0 (default used would be 24dp)
-    private final float cardViewDimen;                 // when equals 0 (default used would be 45dp)
+    private final ColorPalette colorPalette;
+    private final String dialogTitle;               // null to keep the title of layout.
+    private final String dialogPositiveButtonText;  // null to keep the text of layout.
+    private final String dialogNegativeButtonText;  // null to keep the text of layout.
+    private OnDirectSelectColorListener directSelectColorListener;
+    private OnSelectColorListener selectColorListener;
+    private OnPickerMetricsListener metricsListener;
+    private final PaletteLoadTarget paletteLoadTarget;        // null if there is no PaletteLoader.
+    private PaletteLoader paletteLoader;                      // null if there is none, or once colors are submitted.
+    private long inflationNanos;
+    private ColorPickerTracing.FrameSection firstFrameSection;   // until the first frame after show().
+    private PickerLifecycleObserver lifecycleObserver;
 
+    /**
+     * Creates a bottom sheet dialog showing the palette of config. Many dialogs can be created
+     * from the same config, every dialog has its own selection. Listeners are set using the
+     * setters.
+     *
+     * @param context (context of activity)
+     * @param config  (config, usually from Builder.buildConfig())
+     */
+    public ColorPickerBottomSheetDialog(Context context, ColorPickerConfig config) {
+        this.context = context;
+        this.config = config;
+        this.columns = config.getColumns();
+        this.defaultColor = config.getDefaultColor();
+        this.itemDrawableRes = config.getItemDrawableRes();
+        this.dividerViewColor = config.getDividerViewColor();
+        this.colorShape = config.getColorShape();
+        this.colorPalette = config.newColorPalette();
+        this.dialogTitle = config.getDialogTitle();
+        this.dialogPositiveButtonText = config.getPositiveButtonText();
+        this.dialogNegativeButtonText = config.getNegativeButtonText();
+        this.paletteLoader = config.getPaletteLoader();
+        if (paletteLoader != null) {
+            this.paletteLoadTarget = new PaletteLoadTarget(colorPalette, defaultColor);
+            paletteLoader.addListener(paletteLoadTarget);
+        } else {
+            this.paletteLoadTarget = null;
+        }
+        inflate();
+    }
+
+    private void inflate() {
+        long inflationStart = System.nanoTime();
+        ColorPickerTracing.beginSection("ColorPickerBottomSheetDialog#inflate");
+        try {
+            bottomSheetDialogView = LayoutInflater.from(context).inflate(R.layout.layout_color_palette_bottomsheet, null, false);
+        } finally {
+            ColorPickerTracing.endSection();
+        }
+        inflationNanos = System.nanoTime() - inflationStart;
+        colorPaletteRelLayout = bottomSheetDialogView.findViewById(R.id.colorPaletteRelLayout);
+        recyclerViewColors = bottomSheetDialogView.findViewById(R.id.recyclerViewColors);
+        positiveButton = bottomSheetDialogView.findViewById(R.id.positiveButton);
+        negativeButton = bottomSheetDialogView.findViewById(R.id.negativeButton);
+        dialogTitleText = bottomSheetDialogView.findViewById(R.id.dialogTitleText);
+        dividerView = bottomSheetDialogView.findViewById(R.id.dividerView);
+    }
+
+    /**
+     * Inflates the views again if they have been released, and listens to the PaletteLoader again.
+     */
+    private void ensureInflated() {
+        if (bottomSheetDialogView == null && context != null) {
+            inflate();
+            if (paletteLoader != null) {
+                paletteLoadTarget.prepareToReattach();
+                paletteLoader.addListener(paletteLoadTarget);
+            }
+        }
+    }
+
+    /**
+     * @deprecated Use {@link #ColorPickerBottomSheetDialog(Context, ColorPickerConfig)} (or the
+     * Builder). The colors of colorsList are copied, their check state is not used.
+     */
+    @Deprecated
     public ColorPickerBottomSheetDialog(Context context,
                                         int columns,
                                         int defaultColor,
@@ -101,42 +166,21 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
                                         boolean tickSizeChanged,
                                         float tickSizeDimen,
                                         float cardViewDimen) {
-        this.context = context;
-        this.columns = columns;
-        this.defaultColor = defaultColor;
-        this.itemDrawableRes = itemDrawableRes;
-        this.tickColor = tickColor;
-        this.dividerViewColor = dividerViewColor;
-        this.colorShape = colorShape;
-        this.colorsList = colorsList;
-        this.colorItems = colorItems;
-        this.titleTextChanged = titleTextChanged;
-        this.positiveButtonTextChanged = positiveButtonTextChanged;
-        this.negativeButtonTextChanged = negativeButtonTextChanged;
-        this.dialogTitle = dialogTitle != null ? dialogTitle : context.getString(R.string.dialog_title);
-        this.dialogPositiveButtonText = dialogPositiveButtonText != null ? dialogPositiveButtonText : context.getString(R.string.dialog_positive_button_text);
-        this.dialogNegativeButtonText = dialogNegativeButtonText != null ? dialogNegativeButtonText : context.getString(R.string.dialog_negative_button_text);
+        this(context, new ColorPickerConfig(columns, defaultColor, itemDrawableRes, tickColor, dividerViewColor,
+                colorShape, ColorPickerConfig.toColors(colorsList), ColorPickerConfig.toTickColorOverrides(tickColor, colorItems),
+                titleTextChanged ? dialogTitle : null,
+                positiveButtonTextChanged ? dialogPositiveButtonText : null,
+                negativeButtonTextChanged ? dialogNegativeButtonText : null,
+                cardSizeChanged, tickSizeChanged, tickSizeDimen, cardViewDimen, null));
         this.directSelectColorListener = directSelectColorListener;
         this.selectColorListener = selectColorListener;
-        this.cardSizeChanged = cardSizeChanged;
-        this.tickSizeChanged = tickSizeChanged;
-        this.tickSizeDimen = tickSizeDimen;
-        this.cardViewDimen = cardViewDimen;
-
-        bottomSheetDialogView = LayoutInflater.from(context).inflate(R.layout.layout_color_palette_bottomsheet, null, false);
-        colorPaletteRelLayout = bottomSheetDialogView.findViewById(R.id.colorPaletteRelLayout);
-        recyclerViewColors = bottomSheetDialogView.findViewById(R.id.recyclerViewColors);
-        positiveButton = bottomSheetDialogView.findViewById(R.id.positiveButton);
-        negativeButton = bottomSheetDialogView.findViewById(R.id.negativeButton);
-        dialogTitleText = bottomSheetDialogView.findViewById(R.id.dialogTitleText);
-        dividerView = bottomSheetDialogView.findViewById(R.id.dividerView);
     }
 
     @Override
     public void onColorItemClick(int position) {
         this.selectedColorPosition = position;
-        if (directSelectColorListener != null && colorsList != null) {
-            int color = colorsList.get(selectedColorPosition).getColor();
+        if (directSelectColorListener != null) {
+            int color = colorPalette.getColor(selectedColorPosition);
             directSelectColorListener.onDirectColorSelected(color, selectedColorPosition);
             dismissDialog();
         }
@@ -144,43 +188,73 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
 
     /**
      * Shows the dialog box using AlertDialog.Builder using layout_color_palette_view.xml.
+     * The dialog, its view and adapter are created on first show() and kept, so showing the same
+     * instance again only resets the selection (to the default color) and attaches the window.
      */
     public void show() {
         if (context == null) {
             return;
         }
-        if (itemDrawableRes != 0) {
-            colorAdapter = new ColorAdapter(colorsList, context, itemDrawableRes, this);
-        } else {
-            colorAdapter = new ColorAdapter(colorsList, context, colorShape, this);
-        }
-        if (colorItems != null) {
-            colorAdapter.customTickMarkColorForSomeColors(tickColor, colorItems);
-        }
-        if (defaultColor != 0) {
-            colorAdapter.setDefaultColor(defaultColor);
-        }
-        if (tickColor != Color.WHITE) {
-            colorAdapter.setTickMarkColor(tickColor);
-        }
-        if (dividerViewColor != 0) {
-            dividerView.setBackgroundColor(dividerViewColor);
-        }
-        if (tickSizeChanged) {
-            colorAdapter.customTickSize(tickSizeDimen);
+        long showStart = System.nanoTime();
+        ColorPickerTracing.FrameSection firstFrame = ColorPickerTracing.beginFrameSection("ColorPickerBottomSheetDialog#firstFrame");
+        ColorPickerTracing.beginSection("ColorPickerBottomSheetDialog#show");
+        try {
+            endFirstFrameSection();
+            ensureInflated();
+            long inflation = 0;
+            if (bottomSheetDialog == null) {
+                inflation = inflationNanos;
+                createDialog();
+            } else {
+                resetSelection();
+            }
+            BottomSheetBehavior.from((View) bottomSheetDialogView.getParent()).setState(BottomSheetBehavior.STATE_EXPANDED);
+            bottomSheetDialog.show();
+
+            int buttonsVisibility = directSelectColorListener != null ? View.GONE : View.VISIBLE;
+            positiveButton.setVisibility(buttonsVisibility);
+            negativeButton.setVisibility(buttonsVisibility);
+
+            if (metricsListener != null) {
+                metricsListener.onDialogShown(inflation, System.nanoTime() - showStart);
+            }
+            firstFrame.endAfterNextFrame(bottomSheetDialogView);
+            firstFrameSection = firstFrame;
+        } catch (RuntimeException e) {
+            firstFrame.end();
+            throw e;
+        } finally {
+            ColorPickerTracing.endSection();
         }
-        if (cardSizeChanged) {
-            colorAdapter.customCardSize(cardViewDimen);
+    }
+
+    private void createDialog() {
+        ColorPickerTracing.beginSection("ColorPickerBottomSheetDialog#createAdapter");
+        try {
+            if (itemDrawableRes != 0) {
+                colorAdapter = new ColorAdapter(colorPalette, context, itemDrawableRes, this);
+            } else {
+                colorAdapter = new ColorAdapter(colorPalette, context, colorShape, this);
+            }
+            colorAdapter.setMetricsListener(metricsListener);
+            if (paletteLoadTarget != null) {
+                paletteLoadTarget.setAdapter(colorAdapter);
+            }
+            config.applyTo(colorAdapter);
+            if (dividerViewColor != 0) {
+                dividerView.setBackgroundColor(dividerViewColor);
+            }
+            ColorPickerViewPool.setAdapter(recyclerViewColors, new GridLayoutManager(context, columns), colorAdapter);
+        } finally {
+            ColorPickerTracing.endSection();
         }
-        recyclerViewColors.setLayoutManager(new GridLayoutManager(context, columns));
-        recyclerViewColors.setAdapter(colorAdapter);
-        if (titleTextChanged) {
+        if (dialogTitle != null) {
             dialogTitleText.setText(dialogTitle);
         }
-        if (positiveButtonTextChanged) {
+        if (dialogPositiveButtonText != null) {
             positiveButton.setText(dialogPositiveButtonText);
         }
-        if (negativeButtonTextChanged) {
+        if (dialogNegativeButtonText != null) {
             negativeButton.setText(dialogNegativeButtonText);
         }
 
@@ -188,21 +262,18 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
         bottomSheetDialog.setContentView(bottomSheetDialogView);
         bottomSheetDialog.setCanceledOnTouchOutside(true);
         bottomSheetDialog.setTitle("Choose the title");
-        BottomSheetBehavior bottomSheetBehavior = BottomSheetBehavior.from((View) bottomSheetDialogView.getParent());
-        bottomSheetBehavior.setPeekHeight(0);
-        bottomSheetBehavior.setState(BottomSheetBehavior.STATE_EXPANDED);
-        bottomSheetDialog.show();
+        BottomSheetBehavior.from((View) bottomSheetDialogView.getParent()).setPeekHeight(0);
 
         positiveButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                if (selectColorListener != null && colorsList != null) {
+                if (selectColorListener != null) {
                     if (selectedColorPosition != -1) {
-                        int color = colorsList.get(selectedColorPosition).getColor();
+                        int color = colorPalette.getColor(selectedColorPosition);
                         selectColorListener.onColorSelected(color, selectedColorPosition);
                     } else if (colorAdapter.getColorPosition() != -1) {
                         int position = colorAdapter.getColorPosition();
-                        int color = colorsList.get(position).getColor();
+                        int color = colorPalette.getColor(position);
                         selectColorListener.onColorSelected(color, position);
                     }
                     dismissDialog();
@@ -215,13 +286,47 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
                 dismissDialog();
             }
         });
+    }
 
-        if (directSelectColorListener != null) {
-            positiveButton.setVisibility(View.GONE);
-            negativeButton.setVisibility(View.GONE);
+    private void resetSelection() {
+        selectedColorPosition = -1;
+        colorAdapter.clearSelection();
+        if (defaultColor != 0) {
+            colorAdapter.setDefaultColor(defaultColor);
         }
     }
 
+    /**
+     * Sets the listener fired on pressing either of the buttons. Can be called between shows of
+     * the same dialog.
+     *
+     * @param selectColorListener (listener)
+     */
+    public void setOnSelectColorListener(OnSelectColorListener selectColorListener) {
+        this.selectColorListener = selectColorListener;
+    }
+
+    /**
+     * Sets the listener fired as soon as a color is pressed (the buttons are then hidden). Can be
+     * called between shows of the same dialog, null brings the buttons back.
+     *
+     * @param directSelectColorListener (listener)
+     */
+    public void setOnDirectSelectColorListener(OnDirectSelectColorListener directSelectColorListener) {
+        this.directSelectColorListener = directSelectColorListener;
+    }
+
+    /**
+     * Sets the listener to receive render metrics (bind durations of color items, inflation and
+     * show time). Per item trace sections are also emitted while it is set. It must be set before the
+     * first show().
+     *
+     * @param metricsListener (listener, or null)
+     */
+    public void setMetricsListener(OnPickerMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     /**
      * Get the positive button from bottom sheet dialog box.
      *
@@ -267,6 +372,7 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
      * @return bottomSheetDialogView
      */
     public View getDialogView() {
+        ensureInflated();
         return bottomSheetDialogView;
     }
 
@@ -276,53 +382,140 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
      * @return relativeLayout (colorPaletteRelLayout)
      */
     public RelativeLayout getDialogBaseLayout() {
+        ensureInflated();
         return colorPaletteRelLayout;
     }
 
+    /**
+     * Replaces the colors of palette. If the dialog has been shown, the difference is computed in
+     * background and only the changed items are updated, so large palettes do not block the UI.
+     * The selected color stays selected if it is still present. Colors of a PaletteLoader which
+     * are still loading are not added anymore.
+     * Must be called on main thread.
+     *
+     * @param colors (new colors int values)
+     */
+    public void submitColors(int[] colors) {
+        if (paletteLoader != null) {
+            // Colors still loading would be appended to the submitted ones.
+            paletteLoader.removeListener(paletteLoadTarget);
+            paletteLoadTarget.setAdapter(null);
+            paletteLoader = null;
+        }
+        if (colorAdapter == null) {
+            colorPalette.setColors(colors);
+            return;
+        }
+        colorAdapter.submitColors(colors, new Runnable() {
+            @Override
+            public void run() {
+                if (selectedColorPosition != -1) {
+                    selectedColorPosition = colorAdapter.getColorPosition();
+                }
+            }
+        });
+    }
+
     /**
      * Dismiss the dialog if it's visible on screen.
      */
     public void dismissDialog() {
+        endFirstFrameSection();
         if (bottomSheetDialog != null && bottomSheetDialog.isShowing()) {
             bottomSheetDialog.cancel();
         }
     }
 
-    public static class Builder extends ColorPickerBuilder<ColorPickerBottomSheetDialog.Builder> {
+    /**
+     * Ends the firstFrame trace section, if the dialog is dismissed before drawing its first frame.
+     */
+    private void endFirstFrameSection() {
+        if (firstFrameSection != null) {
+            firstFrameSection.end();
+            firstFrameSection = null;
+        }
+    }
+
+    /**
+     * Binds the dialog to the lifecycle of owner (an activity, fragment or its view lifecycle).
+     * The dialog is dismissed when the owner stops. When the owner is destroyed, the dialog
+     * releases its views and adapter (and the context, if it is destroyed too), so a dialog kept
+     * after that does not leak them. The next show() creates them again.
+     *
+     * @param owner (lifecycle owner, or null to unbind)
+     */
+    public void setLifecycleOwner(LifecycleOwner owner) {
+        if (lifecycleObserver != null) {
+            lifecycleObserver.unbind();
+            lifecycleObserver = null;
+        }
+        if (owner == null || context == null) {
+            return;
+        }
+        lifecycleObserver = new PickerLifecycleObserver(context, owner) {
+            @Override
+            void onOwnerStopped() {
+                dismissDialog();
+            }
+
+            @Override
+            void onOwnerDestroyed(boolean releaseContext) {
+                lifecycleObserver = null;
+                release(releaseContext);
+            }
+        };
+    }
+
+    /**
+     * Releases the dialog, its views and adapter. Selection is reset, colors are kept.
+     *
+     * @param releaseContext (whether to release the context too)
+     */
+    private void release(boolean releaseContext) {
+        endFirstFrameSection();
+        if (bottomSheetDialog != null) {
+            bottomSheetDialog.dismiss();
+            bottomSheetDialog = null;
+        }
+        if (recyclerViewColors != null) {
+            // Recycles the items (into the shared pool, if it is enabled) without clearing the pool.
+            recyclerViewColors.swapAdapter(null, true);
+        }
+        if (paletteLoader != null) {
+            // The loader may outlive the dialog (the app may keep it), it is listened to again by the next show().
+            paletteLoader.removeListener(paletteLoadTarget);
+        }
+        if (paletteLoadTarget != null) {
+            paletteLoadTarget.setAdapter(null);
+        }
+        colorAdapter = null;
+        recyclerViewColors = null;
+        bottomSheetDialogView = null;
+        colorPaletteRelLayout = null;
+        dialogTitleText = null;
+        dividerView = null;
+        positiveButton = null;
+        negativeButton = null;
+        selectedColorPosition = -1;
+        colorPalette.clearChecked();
+        if (releaseContext) {
+            context = null;
+        }
+    }
 
-        protected int dividerViewColor = 0;
-        protected boolean positiveButtonTextChanged;
-        protected boolean negativeButtonTextChanged;
-        protected boolean titleTextChanged;
+    public static class Builder extends ColorPickerBuilder<ColorPickerBottomSheetDialog.Builder> {
 
         public Builder(Context context) {
             super(context);
         }
 
         public ColorPickerBottomSheetDialog build() {
-            return new ColorPickerBottomSheetDialog(
-                    context,
-                    columns,
-                    defaultColor,
-                    itemDrawableRes,
-                    tickColor,
-                    dividerViewColor,
-                    colorShape,
-                    colorsList,
-                    colorItems,
-                    titleTextChanged,
-                    dialogTitle,
-                    positiveButtonTextChanged,
-                    dialogPositiveButtonText,
-                    negativeButtonTextChanged,
-                    dialogNegativeButtonText,
-                    directSelectColorListener,
-                    selectColorListener,
-                    cardSizeChanged,
-                    tickSizeChanged,
-                    tickSizeDimen,
-                    cardViewDimen
-            );
+            ColorPickerBottomSheetDialog colorPickerBottomSheetDialog = new ColorPickerBottomSheetDialog(context, buildConfig());
+            colorPickerBottomSheetDialog.setOnSelectColorListener(selectColorListener);
+            colorPickerBottomSheetDialog.setOnDirectSelectColorListener(directSelectColorListener);
+            colorPickerBottomSheetDialog.setMetricsListener(metricsListener);
+            colorPickerBottomSheetDialog.setLifecycleOwner(lifecycleOwner);
+            return colorPickerBottomSheetDialog;
         }
 
         public void show() {
@@ -340,23 +533,5 @@ public class ColorPickerBottomSheetDialog implements OnColorItemClickListener {
             this.dividerViewColor = backgroundColor;
             return this;
         }
-
-        @Override
-        public Builder setDialogTitle(String dialogTitle) {
-            titleTextChanged = true;
-            return super.setDialogTitle(dialogTitle);
-        }
-
-        @Override
-        public Builder setPositiveButtonText(String dialogPositiveButtonText) {
-            positiveButtonTextChanged = true;
-            return super.setPositiveButtonText(dialogPositiveButtonText);
-        }
-
-        @Override
-        public Builder setNegativeButtonText(String dialogNegativeButtonText) {
-            negativeButtonTextChanged = true;
-            return super.setNegativeButtonText(dialogNegativeButtonText);
-        }
     }
 }
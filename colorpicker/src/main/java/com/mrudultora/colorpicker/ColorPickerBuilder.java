@@ -19,11 +19,17 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Color;
 
+import androidx.lifecycle.LifecycleOwner;
+
 import com.mrudultora.colorpicker.listeners.OnDirectSelectColorListener;
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
 import com.mrudultora.colorpicker.listeners.OnSelectColorListener;
+import com.mrudultora.colorpicker.util.ColorCodec;
 import com.mrudultora.colorpicker.util.ColorItemShape;
+import com.mrudultora.colorpicker.util.IntIntMap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
@@ -35,14 +41,31 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
     protected int defaultColor = 0;
     protected int itemDrawableRes = 0;
     protected int tickColor = Color.WHITE;
+    protected int dividerViewColor = 0;                 // only used by ColorPickerBottomSheetDialog.
     protected ColorItemShape colorShape = ColorItemShape.SQUARE;
+    protected final ColorPalette colorPalette = new ColorPalette();
+    protected IntIntMap tickColorOverrides;
+    /**
+     * @deprecated Colors are kept in colorPalette. The setters of this builder no longer add to
+     * this list, colors added to it (by a subclass) are shown after those of colorPalette.
+     */
+    @Deprecated
     protected ArrayList<ColorPaletteItemModel> colorsList = new ArrayList<>();
+    /**
+     * @deprecated Tick colors are kept in tickColorOverrides. The setters of this builder no
+     * longer put in this map, colors put in it (by a subclass) have the tick color tickColor
+     * (unless tickColorOverrides has another one).
+     */
+    @Deprecated
     protected HashMap<Integer, Integer> colorItems;
     protected String dialogTitle;
     protected String dialogPositiveButtonText;
     protected String dialogNegativeButtonText;
     protected OnDirectSelectColorListener directSelectColorListener;
     protected OnSelectColorListener selectColorListener;
+    protected OnPickerMetricsListener metricsListener;
+    protected PaletteLoader paletteLoader;
+    protected LifecycleOwner lifecycleOwner;
     protected boolean cardSizeChanged = false;
     protected boolean tickSizeChanged = false;
     protected float tickSizeDimen = 0f;                 // when equals 0 (default used would be 24dp)
@@ -54,6 +77,65 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
         this.context = context;
     }
 
+    /**
+     * Takes an immutable snapshot of everything set on this builder other than the listeners.
+     * Changing the builder afterwards does not change the config. A config equal to one built
+     * earlier (and still cached) is returned as it is, so dialogs of both share what they prepare.
+     *
+     * @return config
+     */
+    public ColorPickerConfig buildConfig() {
+        return ColorPickerConfig.obtain(new ColorPickerConfig(
+                columns,
+                defaultColor,
+                itemDrawableRes,
+                tickColor,
+                dividerViewColor,
+                colorShape,
+                colors(),
+                tickColorOverrides(),
+                dialogTitle,
+                dialogPositiveButtonText,
+                dialogNegativeButtonText,
+                cardSizeChanged,
+                tickSizeChanged,
+                tickSizeDimen,
+                cardViewDimen,
+                paletteLoader
+        ));
+    }
+
+    /**
+     * @return colors of colorPalette, followed by those of the deprecated colorsList
+     */
+    private int[] colors() {
+        int[] colors = colorPalette.toArray();
+        if (colorsList == null || colorsList.isEmpty()) {
+            return colors;
+        }
+        int[] legacyColors = ColorPickerConfig.toColors(colorsList);
+        int[] allColors = Arrays.copyOf(colors, colors.length + legacyColors.length);
+        System.arraycopy(legacyColors, 0, allColors, colors.length, legacyColors.length);
+        return allColors;
+    }
+
+    /**
+     * @return tickColorOverrides, along with the colors of the deprecated colorItems
+     */
+    private IntIntMap tickColorOverrides() {
+        if (colorItems == null || colorItems.isEmpty()) {
+            return tickColorOverrides;
+        }
+        IntIntMap allOverrides = ColorPickerConfig.toTickColorOverrides(tickColor, colorItems);
+        if (tickColorOverrides != null) {
+            int[] items = tickColorOverrides.keys();
+            for (int item : items) {
+                allOverrides.put(item, tickColorOverrides.get(item, tickColor));
+            }
+        }
+        return allOverrides;
+    }
+
     private B getThis() {
         return (B) this;
     }
@@ -76,6 +158,27 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
         return getThis();
     }
 
+    /**
+     * Sets the listener to receive render metrics (bind durations of color items, inflation and
+     * show time). Per item trace sections are also emitted while it is set.
+     * By default, no metrics are collected.
+     */
+    public B setMetricsListener(OnPickerMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return getThis();
+    }
+
+    /**
+     * Binds the dialog to the lifecycle of owner. It is dismissed when the owner stops, and its
+     * views are released when the owner is destroyed (they are created again by the next show()).
+     *
+     * @param lifecycleOwner (activity, fragment or its view lifecycle owner)
+     * @return this
+     */
+    public B setLifecycleOwner(LifecycleOwner lifecycleOwner) {
+        this.lifecycleOwner = lifecycleOwner;
+        return getThis();
+    }
 
     /**
      * Sets the colors from array defined in this library (arrays.xml).
@@ -84,15 +187,7 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
      * @return this
      */
     public B setColors() {
-        if (context == null) {
-            return getThis();
-        }
-        TypedArray typedArray = context.getResources().obtainTypedArray(R.array.default_colors);
-        for (int i = 0; i < typedArray.length(); i++) {
-            colorsList.add(new ColorPaletteItemModel(typedArray.getColor(i, 0), false));
-        }
-        typedArray.recycle();
-        return getThis();
+        return setColors(R.array.default_colors);
     }
 
     /**
@@ -106,24 +201,40 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
         if (context == null) {
             return getThis();
         }
-        TypedArray typedArray = context.getResources().obtainTypedArray(resId);
-        for (int i = 0; i < typedArray.length(); i++) {
-            colorsList.add(new ColorPaletteItemModel(typedArray.getColor(i, 0), false));
+        ColorPickerTracing.beginSection("ColorPickerBuilder#parseColors");
+        try {
+            TypedArray typedArray = context.getResources().obtainTypedArray(resId);
+            colorPalette.ensureCapacity(colorPalette.size() + typedArray.length());
+            for (int i = 0; i < typedArray.length(); i++) {
+                colorPalette.add(typedArray.getColor(i, 0));
+            }
+            typedArray.recycle();
+        } finally {
+            ColorPickerTracing.endSection();
         }
-        typedArray.recycle();
         return getThis();
     }
 
     /**
-     * Sets the colors from arrayList of hex values (strings).
+     * Sets the colors from arrayList of color strings: hex values (#RRGGBB or #AARRGGBB, like
+     * Color.parseColor()), rgb(), hsl() or color names (see ColorCodec.parseAndroid()).
+     * Strings which are not colors are skipped.
      *
      * @param colorsHexList (ArrayList of Strings)
      * @return this
      */
     public B setColors(ArrayList<String> colorsHexList) {
-        for (String colors : colorsHexList) {
-            int color = Color.parseColor(colors);
-            colorsList.add(new ColorPaletteItemModel(color, false));
+        ColorPickerTracing.beginSection("ColorPickerBuilder#parseColors");
+        try {
+            colorPalette.ensureCapacity(colorPalette.size() + colorsHexList.size());
+            for (int i = 0; i < colorsHexList.size(); i++) {
+                long color = ColorCodec.parseAndroid(colorsHexList.get(i));
+                if (color != ColorCodec.INVALID) {
+                    colorPalette.add((int) color);
+                }
+            }
+        } finally {
+            ColorPickerTracing.endSection();
         }
         return getThis();
     }
@@ -136,9 +247,21 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
      * @return this
      */
     public B setColors(int... colors) {
-        for (int color : colors) {
-            colorsList.add(new ColorPaletteItemModel(color, false));
-        }
+        colorPalette.addAll(colors);
+        return getThis();
+    }
+
+    /**
+     * Sets the colors loaded (in background) by paletteLoader, for example
+     * PaletteLoader.fromResource(context, R.array.colors). They are added after the colors set
+     * using the other setColors() methods, as they are loaded. If the dialog is shown before the
+     * loading is over, the colors still loading are shown as placeholders.
+     *
+     * @param paletteLoader (loader of colors)
+     * @return this
+     */
+    public B setColors(PaletteLoader paletteLoader) {
+        this.paletteLoader = paletteLoader;
         return getThis();
     }
 
@@ -193,11 +316,17 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
      * Sets the default color when dialog box pops up.
      * Default color would have a tick mark on the color.
      *
-     * @param defaultColor (default color int value)
+     * If defaultColor is not a color (see ColorCodec.parseAndroid(), hex has alpha first like
+     * Color.parseColor()), the default color is not changed.
+     *
+     * @param defaultColor (default color string)
      * @return this
      */
     public B setDefaultSelectedColor(String defaultColor) {
-        this.defaultColor = Color.parseColor(defaultColor);
+        long color = ColorCodec.parseAndroid(defaultColor);
+        if (color != ColorCodec.INVALID) {
+            this.defaultColor = (int) color;
+        }
         return getThis();
     }
 
@@ -215,17 +344,20 @@ abstract public class ColorPickerBuilder<B extends ColorPickerBuilder<B>> {
 
     /**
      * Sets the color of tick mark on particular items in color palette. These items would have
-     * the color passed in this method.
-     * Default color is white.
+     * the color passed in this method, other items would have the color set using
+     * setTickColor(int) (default color is white).
+     * Can be called again with other items to have a different tick color for every group of items.
      *
-     * @param tickColor (tick color on item in palette)
+     * @param tickColor  (tick color on these items in palette)
+     * @param colorItems (colors of the items)
      * @return this
      */
     public B setTickColor(int tickColor, int... colorItems) {
-        this.tickColor = tickColor;
-        this.colorItems = new HashMap<>();
+        if (tickColorOverrides == null) {
+            tickColorOverrides = new IntIntMap(colorItems.length);
+        }
         for (int item : colorItems) {
-            this.colorItems.put(item, item);
+            tickColorOverrides.put(item, tickColor);
         }
         return getThis();
     }
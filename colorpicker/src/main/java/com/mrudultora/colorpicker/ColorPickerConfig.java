@@ -0,0 +1,361 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Color;
+import android.util.LruCache;
+
+import com.mrudultora.colorpicker.util.ColorItemShape;
+import com.mrudultora.colorpicker.util.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Immutable snapshot of everything a builder sets on a palette dialog (ColorPickerDialog or
+ * ColorPickerBottomSheetDialog), other than the listeners. One config can back many dialogs,
+ * each of them with its own selection, and it keeps what they prepare from it (the colors, the
+ * tick colors and the bind profile of items), so a dialog opened again with an equal config does
+ * not compute them again.
+ * <p>
+ * The hash is computed once when the config is created. Builders return an already created
+ * config equal to the new one (if it is still cached), so that the prepared values are shared by
+ * every screen opening the same palette. Configs with a PaletteLoader are compared by the
+ * identity of loader and are not cached.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class ColorPickerConfig {
+    private static final int CACHE_SIZE = 8;
+    private static final LruCache<ColorPickerConfig, ColorPickerConfig> CACHE = new LruCache<>(CACHE_SIZE);
+
+    private final int columns;
+    private final int defaultColor;
+    private final int itemDrawableRes;
+    private final int tickColor;
+    private final int dividerViewColor;
+    private final ColorItemShape colorShape;
+    private final int[] colors;
+    private final int[] tickColorItems;     // sorted, tickColors[i] is the tick color of tickColorItems[i].
+    private final int[] tickColors;
+    private final String dialogTitle;               // null for the default title.
+    private final String dialogPositiveButtonText;  // null for the default text.
+    private final String dialogNegativeButtonText;  // null for the default text.
+    private final boolean cardSizeChanged;          // when false (default used would be 45dp)
+    private final boolean tickSizeChanged;          // when false (default used would be 24dp)
+    private final float cardViewDimen;              // 0 unless cardSizeChanged.
+    private final float tickSizeDimen;              // 0 unless tickSizeChanged.
+    private final PaletteLoader paletteLoader;
+    private final int hash;
+
+    // Prepared on first use by the dialogs (on main thread).
+    private IntIntMap tickColorOverrides;
+    private ColorAdapter.BindProfile bindProfile;
+    private Configuration bindProfileConfiguration;  // resources configuration of bindProfile.
+
+    ColorPickerConfig(int columns,
+                      int defaultColor,
+                      int itemDrawableRes,
+                      int tickColor,
+                      int dividerViewColor,
+                      ColorItemShape colorShape,
+                      int[] colors,
+                      IntIntMap tickColorOverrides,
+                      String dialogTitle,
+                      String dialogPositiveButtonText,
+                      String dialogNegativeButtonText,
+                      boolean cardSizeChanged,
+                      boolean tickSizeChanged,
+                      float tickSizeDimen,
+                      float cardViewDimen,
+                      PaletteLoader paletteLoader) {
+        this.columns = columns;
+        this.defaultColor = defaultColor;
+        this.itemDrawableRes = itemDrawableRes;
+        this.tickColor = tickColor;
+        this.dividerViewColor = dividerViewColor;
+        this.colorShape = colorShape;
+        this.colors = colors;
+        if (tickColorOverrides != null && !tickColorOverrides.isEmpty()) {
+            tickColorItems = tickColorOverrides.keys();
+            Arrays.sort(tickColorItems);
+            tickColors = new int[tickColorItems.length];
+            for (int i = 0; i < tickColorItems.length; i++) {
+                tickColors[i] = tickColorOverrides.get(tickColorItems[i], tickColor);
+            }
+        } else {
+            tickColorItems = new int[0];
+            tickColors = tickColorItems;
+        }
+        this.dialogTitle = dialogTitle;
+        this.dialogPositiveButtonText = dialogPositiveButtonText;
+        this.dialogNegativeButtonText = dialogNegativeButtonText;
+        this.cardSizeChanged = cardSizeChanged;
+        this.tickSizeChanged = tickSizeChanged;
+        this.cardViewDimen = cardSizeChanged ? cardViewDimen : 0f;
+        this.tickSizeDimen = tickSizeChanged ? tickSizeDimen : 0f;
+        this.paletteLoader = paletteLoader;
+        this.hash = computeHash();
+    }
+
+    /**
+     * Gets the cached config equal to config, caching config if there is none.
+     */
+    static ColorPickerConfig obtain(ColorPickerConfig config) {
+        if (config.paletteLoader != null) {
+            return config;
+        }
+        ColorPickerConfig cached = CACHE.get(config);
+        if (cached != null) {
+            return cached;
+        }
+        CACHE.put(config, config);
+        return config;
+    }
+
+    /**
+     * Removes all the cached configs (dialogs still using them keep working).
+     */
+    public static void clearCache() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * Colors of colorsList, as passed to the deprecated constructors of dialogs.
+     */
+    static int[] toColors(ArrayList<ColorPaletteItemModel> colorsList) {
+        if (colorsList == null) {
+            return new int[0];
+        }
+        int[] colors = new int[colorsList.size()];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = colorsList.get(i).getColor();
+        }
+        return colors;
+    }
+
+    /**
+     * Tick colors as passed to the deprecated constructors of dialogs, where every color in
+     * colorItems has the tick color tickColor.
+     */
+    static IntIntMap toTickColorOverrides(int tickColor, HashMap<Integer, Integer> colorItems) {
+        if (colorItems == null) {
+            return null;
+        }
+        IntIntMap tickColorOverrides = new IntIntMap(colorItems.size());
+        for (Integer color : colorItems.keySet()) {
+            tickColorOverrides.put(color, tickColor);
+        }
+        return tickColorOverrides;
+    }
+
+    private int computeHash() {
+        int result = columns;
+        result = 31 * result + defaultColor;
+        result = 31 * result + itemDrawableRes;
+        result = 31 * result + tickColor;
+        result = 31 * result + dividerViewColor;
+        result = 31 * result + (colorShape != null ? colorShape.hashCode() : 0);
+        result = 31 * result + Arrays.hashCode(colors);
+        result = 31 * result + Arrays.hashCode(tickColorItems);
+        result = 31 * result + Arrays.hashCode(tickColors);
+        result = 31 * result + (dialogTitle != null ? dialogTitle.hashCode() : 0);
+        result = 31 * result + (dialogPositiveButtonText != null ? dialogPositiveButtonText.hashCode() : 0);
+        result = 31 * result + (dialogNegativeButtonText != null ? dialogNegativeButtonText.hashCode() : 0);
+        result = 31 * result + (cardSizeChanged ? 1 : 0);
+        result = 31 * result + (tickSizeChanged ? 1 : 0);
+        result = 31 * result + Float.floatToIntBits(cardViewDimen);
+        result = 31 * result + Float.floatToIntBits(tickSizeDimen);
+        result = 31 * result + System.identityHashCode(paletteLoader);
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof ColorPickerConfig)) {
+            return false;
+        }
+        ColorPickerConfig other = (ColorPickerConfig) object;
+        return hash == other.hash
+                && columns == other.columns
+                && defaultColor == other.defaultColor
+                && itemDrawableRes == other.itemDrawableRes
+                && tickColor == other.tickColor
+                && dividerViewColor == other.dividerViewColor
+                && colorShape == other.colorShape
+                && cardSizeChanged == other.cardSizeChanged
+                && tickSizeChanged == other.tickSizeChanged
+                && Float.compare(cardViewDimen, other.cardViewDimen) == 0
+                && Float.compare(tickSizeDimen, other.tickSizeDimen) == 0
+                && paletteLoader == other.paletteLoader
+                && equal(dialogTitle, other.dialogTitle)
+                && equal(dialogPositiveButtonText, other.dialogPositiveButtonText)
+                && equal(dialogNegativeButtonText, other.dialogNegativeButtonText)
+                && Arrays.equals(colors, other.colors)
+                && Arrays.equals(tickColorItems, other.tickColorItems)
+                && Arrays.equals(tickColors, other.tickColors);
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getDefaultColor() {
+        return defaultColor;
+    }
+
+    public int getItemDrawableRes() {
+        return itemDrawableRes;
+    }
+
+    public int getTickColor() {
+        return tickColor;
+    }
+
+    public int getDividerViewColor() {
+        return dividerViewColor;
+    }
+
+    public ColorItemShape getColorShape() {
+        return colorShape;
+    }
+
+    /**
+     * @return copy of the colors
+     */
+    public int[] getColors() {
+        return Arrays.copyOf(colors, colors.length);
+    }
+
+    public int getColorCount() {
+        return colors.length;
+    }
+
+    public String getDialogTitle() {
+        return dialogTitle;
+    }
+
+    public String getPositiveButtonText() {
+        return dialogPositiveButtonText;
+    }
+
+    public String getNegativeButtonText() {
+        return dialogNegativeButtonText;
+    }
+
+    /**
+     * @return whether the size of color items is set (even to 0), else the default size is used
+     */
+    public boolean isColorItemDimenSet() {
+        return cardSizeChanged;
+    }
+
+    public float getColorItemDimenInDp() {
+        return cardViewDimen;
+    }
+
+    /**
+     * @return whether the size of tick mark is set (even to 0), else the default size is used
+     */
+    public boolean isTickDimenSet() {
+        return tickSizeChanged;
+    }
+
+    public float getTickDimenInDp() {
+        return tickSizeDimen;
+    }
+
+    public PaletteLoader getPaletteLoader() {
+        return paletteLoader;
+    }
+
+    /**
+     * Creates a palette for one dialog. Palettes do not share their selection.
+     */
+    ColorPalette newColorPalette() {
+        return new ColorPalette(colors);
+    }
+
+    /**
+     * Gets the tick color overrides (color -> tick color) shared by all the adapters of config.
+     * The map must not be modified.
+     *
+     * @return map (or null if there are no overrides)
+     */
+    IntIntMap getTickColorOverrides() {
+        if (tickColorOverrides == null && tickColorItems.length != 0) {
+            IntIntMap map = new IntIntMap(tickColorItems.length);
+            for (int i = 0; i < tickColorItems.length; i++) {
+                map.put(tickColorItems[i], tickColors[i]);
+            }
+            tickColorOverrides = map;
+        }
+        return tickColorOverrides;
+    }
+
+    /**
+     * Applies the config to adapter and lets it share the bind profile of config.
+     */
+    void applyTo(ColorAdapter colorAdapter) {
+        IntIntMap overrides = getTickColorOverrides();
+        if (overrides != null) {
+            colorAdapter.setTickMarkColors(overrides);
+        }
+        if (defaultColor != 0) {
+            colorAdapter.setDefaultColor(defaultColor);
+        }
+        if (tickColor != Color.WHITE) {
+            colorAdapter.setTickMarkColor(tickColor);
+        }
+        if (tickSizeChanged) {
+            colorAdapter.customTickSize(tickSizeDimen);
+        }
+        if (cardSizeChanged) {
+            colorAdapter.customCardSize(cardViewDimen);
+        }
+        colorAdapter.setConfig(this);
+    }
+
+    /**
+     * Gets the bind profile for adapter, computing it only if the resources configuration
+     * (density, night mode...) differs from the one it was computed for.
+     */
+    ColorAdapter.BindProfile getBindProfile(ColorAdapter colorAdapter, Resources resources) {
+        Configuration configuration = resources.getConfiguration();
+        if (bindProfile == null || !configuration.equals(bindProfileConfiguration)) {
+            bindProfile = new ColorAdapter.BindProfile(colorAdapter);
+            bindProfileConfiguration = new Configuration(configuration);
+        }
+        return bindProfile;
+    }
+}
@@ -21,18 +21,19 @@ import android.app.Dialog;
 import android.content.Context;
 import android.content.DialogInterface;
 import android.content.res.TypedArray;
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.Button;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.mrudultora.colorpicker.listeners.OnColorItemClickListener;
 import com.mrudultora.colorpicker.listeners.OnDirectSelectColorListener;
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
 import com.mrudultora.colorpicker.listeners.OnSelectColorListener;
 import com.mrudultora.colorpicker.util.ColorItemShape;
 
@@ -45,11 +46,12 @@ import java.util.HashMap;
  */
 public class ColorPickerDialog implements OnColorItemClickListener {
 
-    private final Context context;
+    private Context context;                    // null once released along with its lifecycle.
 
-    private final RecyclerView recyclerViewColors;
-    private final View dialogView;
-    private final RelativeLayout colorPaletteRelLayout;
+    // Views are released when the lifecycle owner is destroyed, and inflated again by show().
+    private RecyclerView recyclerViewColors;
+    private View dialogView;
+    private RelativeLayout colorPaletteRelLayout;
     private Button positiveButton;
     private Button negativeButton;
 
@@ -59,24 +61,83 @@ public class ColorPickerDialog implements OnColorItemClickListener {
 
     private int selectedColorPosition = -1;
 
+    private final ColorPickerConfig config;
     private final int columns;
     private final int defaultColor;
     private final int itemDrawableRes;
-    private final int tickColor;
     private final ColorItemShape colorShape;
-    private final ArrayList<ColorPaletteItemModel> colorsList;
-    private final HashMap<Integer, Integer> colorItems;
+    private final ColorPalette colorPalette;
     private final String dialogTitle;
     private final String dialogPositiveButtonText;
     private final String dialogNegativeButtonText;
-    private final OnDirectSelectColorListener directSelectColorListener;
-    private final OnSelectColorListener selectColorListener;
-    private final boolean cardSizeChanged;
-    private final boolean tickSizeChanged;
-    private final float tickSizeDimen;                 // when equals 0 (default used would be 24dp)
-    private final float cardViewDimen;                 // when equals 0 (default used would be 45dp)
+    private OnDirectSelectColorListener directSelectColorListener;
+    private OnSelectColorListener selectColorListener;
+    private OnPickerMetricsListener metricsListener;
+    private final PaletteLoadTarget paletteLoadTarget;        // null if there is no PaletteLoader.
+    private PaletteLoader paletteLoader;                      // null if there is none, or once colors are submitted.
+    private long inflationNanos;
+    private ColorPickerTracing.FrameSection firstFrameSection;   // until the first frame after show().
+    private PickerLifecycleObserver lifecycleObserver;
 
+    /**
+     * Creates a dialog showing the palette of config. Many dialogs can be created from the same
+     * config, every dialog has its own selection. Listeners are set using the setters.
+     *
+     * @param context (context of activity)
+     * @param config  (config, usually from Builder.buildConfig())
+     */
+    public ColorPickerDialog(Context context, ColorPickerConfig config) {
+        this.context = context;
+        this.config = config;
+        this.columns = config.getColumns();
+        this.defaultColor = config.getDefaultColor();
+        this.itemDrawableRes = config.getItemDrawableRes();
+        this.colorShape = config.getColorShape();
+        this.colorPalette = config.newColorPalette();
+        this.dialogTitle = config.getDialogTitle() != null ? config.getDialogTitle() : context.getString(R.string.dialog_title);
+        this.dialogPositiveButtonText = config.getPositiveButtonText() != null ? config.getPositiveButtonText() : context.getString(R.string.dialog_positive_button_text);
+        this.dialogNegativeButtonText = config.getNegativeButtonText() != null ? config.getNegativeButtonText() : context.getString(R.string.dialog_negative_button_text);
+        this.paletteLoader = config.getPaletteLoader();
+        if (paletteLoader != null) {
+            this.paletteLoadTarget = new PaletteLoadTarget(colorPalette, defaultColor);
+            paletteLoader.addListener(paletteLoadTarget);
+        } else {
+            this.paletteLoadTarget = null;
+        }
+        inflate();
+    }
 
+    private void inflate() {
+        long inflationStart = System.nanoTime();
+        ColorPickerTracing.beginSection("ColorPickerDialog#inflate");
+        try {
+            dialogView = LayoutInflater.from(context).inflate(R.layout.layout_color_palette_dialog, null, false);
+        } finally {
+            ColorPickerTracing.endSection();
+        }
+        inflationNanos = System.nanoTime() - inflationStart;
+        colorPaletteRelLayout = dialogView.findViewById(R.id.colorPaletteRelLayout);
+        recyclerViewColors = dialogView.findViewById(R.id.recyclerViewColors);
+    }
+
+    /**
+     * Inflates the views again if they have been released, and listens to the PaletteLoader again.
+     */
+    private void ensureInflated() {
+        if (dialogView == null && context != null) {
+            inflate();
+            if (paletteLoader != null) {
+                paletteLoadTarget.prepareToReattach();
+                paletteLoader.addListener(paletteLoadTarget);
+            }
+        }
+    }
+
+    /**
+     * @deprecated Use {@link #ColorPickerDialog(Context, ColorPickerConfig)} (or the Builder).
+     * The colors of colorsList are copied, their check state is not used.
+     */
+    @Deprecated
     public ColorPickerDialog(Context context,
                              int columns,
                              int defaultColor,
@@ -94,34 +155,19 @@ public class ColorPickerDialog implements OnColorItemClickListener {
                              boolean tickSizeChanged,
                              float tickSizeDimen,
                              float cardViewDimen) {
-        this.context = context;
-        this.columns = columns;
-        this.defaultColor = defaultColor;
-        this.itemDrawableRes = itemDrawableRes;
-        this.tickColor = tickColor;
-        this.colorShape = colorShape;
-        this.colorsList = colorsList;
-        this.colorItems = colorItems;
-        this.dialogTitle = dialogTitle != null ? dialogTitle : context.getString(R.string.dialog_title);
-        this.dialogPositiveButtonText = dialogPositiveButtonText != null ? dialogPositiveButtonText : context.getString(R.string.dialog_positive_button_text);
-        this.dialogNegativeButtonText = dialogNegativeButtonText != null ? dialogNegativeButtonText : context.getString(R.string.dialog_negative_button_text);
+        this(context, new ColorPickerConfig(columns, defaultColor, itemDrawableRes, tickColor, 0, colorShape,
+                ColorPickerConfig.toColors(colorsList), ColorPickerConfig.toTickColorOverrides(tickColor, colorItems),
+                dialogTitle, dialogPositiveButtonText, dialogNegativeButtonText,
+                cardSizeChanged, tickSizeChanged, tickSizeDimen, cardViewDimen, null));
         this.directSelectColorListener = directSelectColorListener;
         this.selectColorListener = selectColorListener;
-        this.cardSizeChanged = cardSizeChanged;
-        this.tickSizeChanged = tickSizeChanged;
-        this.tickSizeDimen = tickSizeDimen;
-        this.cardViewDimen = cardViewDimen;
-
-        this.dialogView = LayoutInflater.from(context).inflate(R.layout.layout_color_palette_dialog, null, false);
-        this.colorPaletteRelLayout = dialogView.findViewById(R.id.colorPaletteRelLayout);
-        this.recyclerViewColors = dialogView.findViewById(R.id.recyclerViewColors);
     }
 
     @Override
     public void onColorItemClick(int position) {
         this.selectedColorPosition = position;
-        if (directSelectColorListener != null && colorsList != null) {
-            int color = colorsList.get(selectedColorPosition).getColor();
+        if (directSelectColorListener != null) {
+            int color = colorPalette.getColor(selectedColorPosition);
             directSelectColorListener.onDirectColorSelected(color, selectedColorPosition);
             dismissDialog();
         }
@@ -129,47 +175,77 @@ public class ColorPickerDialog implements OnColorItemClickListener {
 
     /**
      * Shows the dialog box using AlertDialog.Builder using layout_color_palette_view.xml.
+     * The dialog, its view and adapter are created on first show() and kept, so showing the same
+     * instance again only resets the selection (to the default color) and attaches the window.
      */
     public void show() {
         if (context == null) {
             return;
         }
-        if (itemDrawableRes != 0) {
-            colorAdapter = new ColorAdapter(colorsList, context, itemDrawableRes, this);
-        } else {
-            colorAdapter = new ColorAdapter(colorsList, context, colorShape, this);
+        long showStart = System.nanoTime();
+        ColorPickerTracing.FrameSection firstFrame = ColorPickerTracing.beginFrameSection("ColorPickerDialog#firstFrame");
+        ColorPickerTracing.beginSection("ColorPickerDialog#show");
+        try {
+            endFirstFrameSection();
+            ensureInflated();
+            long inflation = 0;
+            if (dialog == null) {
+                inflation = inflationNanos;
+                createDialog();
+            } else {
+                resetSelection();
+            }
+            dialog.show();
+            positiveButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_POSITIVE);
+            negativeButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_NEGATIVE);
+
+            int buttonsVisibility = directSelectColorListener != null ? View.GONE : View.VISIBLE;
+            positiveButton.setVisibility(buttonsVisibility);
+            negativeButton.setVisibility(buttonsVisibility);
+
+            if (metricsListener != null) {
+                metricsListener.onDialogShown(inflation, System.nanoTime() - showStart);
+            }
+            firstFrame.endAfterNextFrame(dialogView);
+            firstFrameSection = firstFrame;
+        } catch (RuntimeException e) {
+            firstFrame.end();
+            throw e;
+        } finally {
+            ColorPickerTracing.endSection();
         }
+    }
 
-        if (colorItems != null) {
-            colorAdapter.customTickMarkColorForSomeColors(tickColor, colorItems);
+    private void createDialog() {
+        ColorPickerTracing.beginSection("ColorPickerDialog#createAdapter");
+        try {
+            if (itemDrawableRes != 0) {
+                colorAdapter = new ColorAdapter(colorPalette, context, itemDrawableRes, this);
+            } else {
+                colorAdapter = new ColorAdapter(colorPalette, context, colorShape, this);
+            }
+            colorAdapter.setMetricsListener(metricsListener);
+            if (paletteLoadTarget != null) {
+                paletteLoadTarget.setAdapter(colorAdapter);
+            }
+            config.applyTo(colorAdapter);
+            ColorPickerViewPool.setAdapter(recyclerViewColors, new GridLayoutManager(context, columns), colorAdapter);
+        } finally {
+            ColorPickerTracing.endSection();
         }
-        if (defaultColor != 0) {
-            colorAdapter.setDefaultColor(defaultColor);
-        }
-        if (tickColor != Color.WHITE) {
-            colorAdapter.setTickMarkColor(tickColor);
-        }
-        if (tickSizeChanged) {
-            colorAdapter.customTickSize(tickSizeDimen);
-        }
-        if (cardSizeChanged) {
-            colorAdapter.customCardSize(cardViewDimen);
-        }
-        recyclerViewColors.setLayoutManager(new GridLayoutManager(context, columns));
-        recyclerViewColors.setAdapter(colorAdapter);
 
         AlertDialog.Builder builder = new AlertDialog.Builder(context)
                 .setView(dialogView)
                 .setPositiveButton(dialogPositiveButtonText, new DialogInterface.OnClickListener() {
                     @Override
                     public void onClick(DialogInterface dialogInterface, int i) {
-                        if (selectColorListener != null && colorsList != null) {
+                        if (selectColorListener != null) {
                             if (selectedColorPosition != -1) {
-                                int color = colorsList.get(selectedColorPosition).getColor();
+                                int color = colorPalette.getColor(selectedColorPosition);
                                 selectColorListener.onColorSelected(color, selectedColorPosition);
                             } else if (colorAdapter.getColorPosition() != -1) {
                                 int position = colorAdapter.getColorPosition();
-                                int color = colorsList.get(position).getColor();
+                                int color = colorPalette.getColor(position);
                                 selectColorListener.onColorSelected(color, position);
                             } else {
                                 dismissDialog();
@@ -186,16 +262,47 @@ public class ColorPickerDialog implements OnColorItemClickListener {
                 .setTitle(dialogTitle)
                 .setCancelable(true);
         dialog = builder.create();
-        dialog.show();
-        positiveButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_POSITIVE);
-        negativeButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_NEGATIVE);
+    }
 
-        if (directSelectColorListener != null) {
-            positiveButton.setVisibility(View.GONE);
-            negativeButton.setVisibility(View.GONE);
+    private void resetSelection() {
+        selectedColorPosition = -1;
+        colorAdapter.clearSelection();
+        if (defaultColor != 0) {
+            colorAdapter.setDefaultColor(defaultColor);
         }
     }
 
+    /**
+     * Sets the listener fired on pressing either of the buttons. Can be called between shows of
+     * the same dialog.
+     *
+     * @param selectColorListener (listener)
+     */
+    public void setOnSelectColorListener(OnSelectColorListener selectColorListener) {
+        this.selectColorListener = selectColorListener;
+    }
+
+    /**
+     * Sets the listener fired as soon as a color is pressed (the buttons are then hidden). Can be
+     * called between shows of the same dialog, null brings the buttons back.
+     *
+     * @param directSelectColorListener (listener)
+     */
+    public void setOnDirectSelectColorListener(OnDirectSelectColorListener directSelectColorListener) {
+        this.directSelectColorListener = directSelectColorListener;
+    }
+
+    /**
+     * Sets the listener to receive render metrics (bind durations of color items, inflation and
+     * show time). Per item trace sections are also emitted while it is set. It must be set before the
+     * first show().
+     *
+     * @param metricsListener (listener, or null)
+     */
+    public void setMetricsListener(OnPickerMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     /**
      * Get the positive button from dialog box.
      * This method may throw NullPointerException if the dialog box is not showing on screen.
@@ -258,6 +365,7 @@ public class ColorPickerDialog implements OnColorItemClickListener {
      * @return dialogView
      */
     public View getDialogView() {
+        ensureInflated();
         return dialogView;
     }
 
@@ -267,18 +375,125 @@ public class ColorPickerDialog implements OnColorItemClickListener {
      * @return relativeLayout (colorPaletteRelLayout)
      */
     public RelativeLayout getDialogBaseLayout() {
+        ensureInflated();
         return colorPaletteRelLayout;
     }
 
+    /**
+     * Replaces the colors of palette. If the dialog has been shown, the difference is computed in
+     * background and only the changed items are updated, so large palettes do not block the UI.
+     * The selected color stays selected if it is still present. Colors of a PaletteLoader which
+     * are still loading are not added anymore.
+     * Must be called on main thread.
+     *
+     * @param colors (new colors int values)
+     */
+    public void submitColors(int[] colors) {
+        if (paletteLoader != null) {
+            // Colors still loading would be appended to the submitted ones.
+            paletteLoader.removeListener(paletteLoadTarget);
+            paletteLoadTarget.setAdapter(null);
+            paletteLoader = null;
+        }
+        if (colorAdapter == null) {
+            colorPalette.setColors(colors);
+            return;
+        }
+        colorAdapter.submitColors(colors, new Runnable() {
+            @Override
+            public void run() {
+                if (selectedColorPosition != -1) {
+                    selectedColorPosition = colorAdapter.getColorPosition();
+                }
+            }
+        });
+    }
+
     /**
      * Dismiss the dialog if it's visible on screen.
      */
     public void dismissDialog() {
+        endFirstFrameSection();
         if (dialog != null && dialog.isShowing()) {
             dialog.dismiss();
         }
     }
 
+    /**
+     * Ends the firstFrame trace section, if the dialog is dismissed before drawing its first frame.
+     */
+    private void endFirstFrameSection() {
+        if (firstFrameSection != null) {
+            firstFrameSection.end();
+            firstFrameSection = null;
+        }
+    }
+
+    /**
+     * Binds the dialog to the lifecycle of owner (an activity, fragment or its view lifecycle).
+     * The dialog is dismissed when the owner stops. When the owner is destroyed, the dialog
+     * releases its views and adapter (and the context, if it is destroyed too), so a dialog kept
+     * after that does not leak them. The next show() creates them again.
+     *
+     * @param owner (lifecycle owner, or null to unbind)
+     */
+    public void setLifecycleOwner(LifecycleOwner owner) {
+        if (lifecycleObserver != null) {
+            lifecycleObserver.unbind();
+            lifecycleObserver = null;
+        }
+        if (owner == null || context == null) {
+            return;
+        }
+        lifecycleObserver = new PickerLifecycleObserver(context, owner) {
+            @Override
+            void onOwnerStopped() {
+                dismissDialog();
+            }
+
+            @Override
+            void onOwnerDestroyed(boolean releaseContext) {
+                lifecycleObserver = null;
+                release(releaseContext);
+            }
+        };
+    }
+
+    /**
+     * Releases the dialog, its views and adapter. Selection is reset, colors are kept.
+     *
+     * @param releaseContext (whether to release the context too)
+     */
+    private void release(boolean releaseContext) {
+        endFirstFrameSection();
+        if (dialog != null) {
+            dialog.dismiss();
+            dialog = null;
+        }
+        if (recyclerViewColors != null) {
+            // Recycles the items (into the shared pool, if it is enabled) without clearing the pool.
+            recyclerViewColors.swapAdapter(null, true);
+        }
+        if (paletteLoader != null) {
+            // The loader may outlive the dialog (the app may keep it), it is listened to again by the next show().
+            paletteLoader.removeListener(paletteLoadTarget);
+        }
+        if (paletteLoadTarget != null) {
+            paletteLoadTarget.setAdapter(null);
+        }
+        colorAdapter = null;
+        recyclerViewColors = null;
+        dialogView = null;
+        colorPaletteRelLayout = null;
+        positiveButton = null;
+        negativeButton = null;
+        selectedColorPosition = -1;
+        colorPalette.clearChecked();
+        if (releaseContext) {
+            context = null;
+        }
+    }
+
     public static class Builder extends ColorPickerBuilder<Builder> {
 
         public Builder(Context context) {
@@ -286,25 +501,12 @@ public class ColorPickerDialog implements OnColorItemClickListener {
         }
 
         public ColorPickerDialog build() {
-            return new ColorPickerDialog(
-                    context,
-                    columns,
-                    defaultColor,
-                    itemDrawableRes,
-                    tickColor,
-                    colorShape,
-                    colorsList,
-                    colorItems,
-                    dialogTitle,
-                    dialogPositiveButtonText,
-                    dialogNegativeButtonText,
-                    directSelectColorListener,
-                    selectColorListener,
-                    cardSizeChanged,
-                    tickSizeChanged,
-                    tickSizeDimen,
-                    cardViewDimen
-            );
+            ColorPickerDialog colorPickerDialog = new ColorPickerDialog(context, buildConfig());
+            colorPickerDialog.setOnSelectColorListener(selectColorListener);
+            colorPickerDialog.setOnDirectSelectColorListener(directSelectColorListener);
+            colorPickerDialog.setMetricsListener(metricsListener);
+            colorPickerDialog.setLifecycleOwner(lifecycleOwner);
+            return colorPickerDialog;
         }
 
         public void show() {
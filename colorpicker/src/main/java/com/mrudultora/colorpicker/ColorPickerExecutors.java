@@ -0,0 +1,97 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors shared by the whole library. Background work (like loading of palettes) is done
+ * one task at a time on a single low priority thread, so that it never competes with the UI.
+ * Tiles of SaturationValueTileCache are rendered on a thread of their own, so that prewarming
+ * them does not delay the other background work.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+final class ColorPickerExecutors {
+    private static ExecutorService background;
+    private static ExecutorService tileRendering;
+    private static Handler mainThread;
+
+    private ColorPickerExecutors() {
+    }
+
+    /**
+     * Gets the background executor. The thread is created on first use.
+     *
+     * @return executor
+     */
+    static synchronized ExecutorService background() {
+        if (background == null) {
+            background = newLowPriorityExecutor("colorpicker-background");
+        }
+        return background;
+    }
+
+    /**
+     * Gets the executor rendering the tiles of SaturationValueTileCache. The thread is created
+     * on first use.
+     *
+     * @return executor
+     */
+    static synchronized ExecutorService tileRendering() {
+        if (tileRendering == null) {
+            tileRendering = newLowPriorityExecutor("colorpicker-tiles");
+        }
+        return tileRendering;
+    }
+
+    private static ExecutorService newLowPriorityExecutor(final String threadName) {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Gets a handler for posting results back to the main thread.
+     *
+     * @return handler
+     */
+    static synchronized Handler mainThread() {
+        if (mainThread == null) {
+            mainThread = new Handler(Looper.getMainLooper());
+        }
+        return mainThread;
+    }
+}
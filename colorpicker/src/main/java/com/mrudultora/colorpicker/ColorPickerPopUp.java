@@ -21,8 +21,9 @@ import android.app.AlertDialog;
 import android.app.Dialog;
 import android.content.Context;
 import android.content.DialogInterface;
-import android.graphics.Color;
-import android.graphics.drawable.GradientDrawable;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.view.Choreographer;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.View;
@@ -32,6 +33,14 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import androidx.appcompat.widget.AppCompatImageView;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
+import com.mrudultora.colorpicker.listeners.OnPopUpInflatedListener;
+import com.mrudultora.colorpicker.util.ColorConverter;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A ColorPicker pop up to choose any color with or without alpha.
@@ -41,19 +50,25 @@ import androidx.appcompat.widget.AppCompatImageView;
  * @since 6 May, 2021
  */
 public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalLayoutListener, View.OnTouchListener {
-    private final Context context;
-    private final View dialogView;
-    private final View alphaOverlay;
-    private final View viewOldColor;
-    private final View viewNewColor;
-    private final AppCompatImageView cursorColorPicker;
-    private final ColorPickerView colorPickerView;
-    private final RelativeLayout colorPickerRelLayout;
-    private final RelativeLayout colorPickerBaseLayout;
-    private final AppCompatImageView hueImageView;
-    private final AppCompatImageView alphaImageView;
-    private final AppCompatImageView cursorHue;
-    private final AppCompatImageView cursorAlpha;
+    private static final float TOUCH_SMOOTHING_FACTOR = 0.5f;
+
+    private Context context;                    // null once released along with its lifecycle.
+    // Views are inflated on first use (or ahead of time by inflateAsync()), so they are null until
+    // then. They are also released when the lifecycle owner is destroyed.
+    private View dialogView;
+    private View viewOldColor;
+    private View viewNewColor;
+    private AppCompatImageView cursorColorPicker;
+    private ColorPickerView colorPickerView;
+    private RelativeLayout colorPickerBaseLayout;
+    private HueSliderView hueSliderView;
+    private AlphaSliderView alphaSliderView;
+    private AppCompatImageView cursorHue;
+    private AppCompatImageView cursorAlpha;
+    private boolean inflating = false;
+    private int inflateGeneration = 0;      // changed by release(), so a background inflation in flight is dropped.
+    private PickerLifecycleObserver lifecycleObserver;
+    private ArrayList<OnPopUpInflatedListener> inflatedListeners;
     private OnPickColorListener pickColorListener;
     private boolean showAlpha = true;
     private String dialogTitle;
@@ -62,9 +77,30 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
     private Dialog dialog;
     private Button positiveButton;
     private Button negativeButton;
-    private int selectedColor = Integer.MAX_VALUE;
+    private int defaultColor = Integer.MAX_VALUE;      // set by setDefaultColor(), restored by every show().
+    private int selectedColor;
     private int alpha = 255;
     private float[] currentColorsHSV = new float[]{1f, 1f, 1f};
+    private SaturationValueTileCache tileCache;
+    private OnPickerMetricsListener metricsListener;
+    private long inflationNanos;    // time main thread spent inflating, reported by the next show().
+    private ColorPickerTracing.FrameSection firstFrameSection;   // until the first frame after show().
+    private boolean prewarmTileCache = false;
+    private boolean coalesceTouchEvents = false;
+    private boolean touchSmoothing = false;
+    private boolean touchFrameCallbackPosted = false;
+    private View pendingTouchView;
+    private float pendingTouchX;
+    private float pendingTouchY;
+    private long pendingTouchEventTime;
+    private float smoothedX;
+    private float smoothedY;
+    private final Choreographer.FrameCallback touchFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            applyPendingTouch();
+        }
+    };
 
     public interface OnPickColorListener {
         void onColorPicked(int color);
@@ -72,50 +108,211 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
         void onCancel();
     }
 
+    /**
+     * Creates the pop up. Its layout is not inflated until it is needed (by show(),
+     * getDialogView() or getDialogBaseLayout()), unless inflateAsync() is called.
+     *
+     * @param context (context of activity)
+     */
     public ColorPickerPopUp(Context context) {
-        super(context);
+        // The pop up is never attached as a view, so it does not need to keep the activity.
+        super(context.getApplicationContext() != null ? context.getApplicationContext() : context);
         this.context = context;
-        dialogView = LayoutInflater.from(context).inflate(R.layout.layout_colorpicker_popup, null, false);
+        dialogTitle = context.getString(R.string.dialog_title);
+        dialogPositiveButtonText = context.getString(R.string.dialog_positive_button_text);
+        dialogNegativeButtonText = context.getString(R.string.dialog_negative_button_text);
+    }
+
+    /**
+     * Creates a pop up and starts inflating its layout on the background thread, so that a later
+     * show() does not inflate on main thread. Keep the returned pop up and show it when needed.
+     *
+     * @param context (context of activity)
+     * @return colorPickerPopUp
+     */
+    public static ColorPickerPopUp prewarm(Context context) {
+        return new ColorPickerPopUp(context).inflateAsync(null);
+    }
+
+    /**
+     * Inflates the layout on the background thread (like AsyncLayoutInflater). If the layout
+     * can not be inflated there, it is inflated on main thread instead. Nothing is done if the
+     * layout is already inflated or being inflated. If show() is called before the inflation is
+     * over, the layout is inflated by show() and the background result is dropped. It is also
+     * dropped if the pop up is released (see setLifecycleOwner()) before the inflation is over.
+     * <p>
+     * The background inflater has no factory (such as the one of AppCompatActivity, which is
+     * not thread safe), so layout_colorpicker_popup.xml names every AppCompat widget in full.
+     *
+     * @param inflatedListener (called on main thread once the layout is inflated, may be null)
+     * @return this
+     */
+    public ColorPickerPopUp inflateAsync(OnPopUpInflatedListener inflatedListener) {
+        if (context == null) {
+            return this;
+        }
+        if (dialogView != null) {
+            if (inflatedListener != null) {
+                inflatedListener.onPopUpInflated(this);
+            }
+            return this;
+        }
+        if (inflatedListener != null) {
+            if (inflatedListeners == null) {
+                inflatedListeners = new ArrayList<>(1);
+            }
+            inflatedListeners.add(inflatedListener);
+        }
+        if (inflating) {
+            return this;
+        }
+        inflating = true;
+        final int generation = inflateGeneration;
+        final LayoutInflater layoutInflater = new BasicInflater(context);
+        ColorPickerExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                View view;
+                ColorPickerTracing.beginSection("ColorPickerPopUp#inflate");
+                try {
+                    view = layoutInflater.inflate(R.layout.layout_colorpicker_popup, null, false);
+                } catch (RuntimeException e) {
+                    view = null;    // inflated on main thread instead.
+                } finally {
+                    ColorPickerTracing.endSection();
+                }
+                final View inflatedView = view;
+                ColorPickerExecutors.mainThread().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != inflateGeneration || context == null) {
+                            return;     // released since, the view is dropped.
+                        }
+                        inflating = false;
+                        if (dialogView != null) {
+                            return;
+                        }
+                        if (inflatedView != null) {
+                            bindViews(inflatedView);
+                        } else {
+                            ensureInflated();
+                        }
+                    }
+                });
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Inflates the layout on main thread, if it is not inflated yet.
+     */
+    private void ensureInflated() {
+        if (dialogView != null || context == null) {
+            return;
+        }
+        ColorPickerTracing.beginSection("ColorPickerPopUp#inflate");
+        View view;
+        try {
+            long inflationStart = System.nanoTime();
+            view = LayoutInflater.from(context).inflate(R.layout.layout_colorpicker_popup, null, false);
+            inflationNanos = System.nanoTime() - inflationStart;
+        } finally {
+            ColorPickerTracing.endSection();
+        }
+        bindViews(view);
+    }
+
+    private void bindViews(View view) {
+        dialogView = view;
         cursorColorPicker = dialogView.findViewById(R.id.cursor_colorpicker);
         colorPickerView = dialogView.findViewById(R.id.colorPickerView);
-        colorPickerRelLayout = dialogView.findViewById(R.id.colorPickerRelLayout);
         colorPickerBaseLayout = dialogView.findViewById(R.id.colorPickerBaseLayout);
-        hueImageView = dialogView.findViewById(R.id.hueImageView);
-        alphaImageView = dialogView.findViewById(R.id.alphaImageView);
+        hueSliderView = dialogView.findViewById(R.id.hueSliderView);
+        alphaSliderView = dialogView.findViewById(R.id.alphaSliderView);
         cursorHue = dialogView.findViewById(R.id.cursor_hue);
         cursorAlpha = dialogView.findViewById(R.id.cursor_alpha);
-        alphaOverlay = dialogView.findViewById(R.id.alpha_overlay);
         viewOldColor = dialogView.findViewById(R.id.viewOldColor);
         viewNewColor = dialogView.findViewById(R.id.viewNewColor);
-        dialogTitle = context.getString(R.string.dialog_title);
-        dialogPositiveButtonText = context.getString(R.string.dialog_positive_button_text);
-        dialogNegativeButtonText = context.getString(R.string.dialog_negative_button_text);
+        if (inflatedListeners != null) {
+            ArrayList<OnPopUpInflatedListener> listeners = inflatedListeners;
+            inflatedListeners = null;
+            for (OnPopUpInflatedListener listener : listeners) {
+                listener.onPopUpInflated(this);
+            }
+        }
     }
 
     /**
      * Shows the dialog box using AlertDialog.Builder using layout_colorpicker_popup.xml.
+     * The dialog is created on first show() and kept, so showing the same pop up again only
+     * applies the current title, button texts and default color, and moves the cursors to it.
      */
     @SuppressLint("ClickableViewAccessibility")
     public void show() {
-        if (selectedColor == Integer.MAX_VALUE) {
-            selectedColor = Color.HSVToColor(currentColorsHSV);
-        }
-        if (!showAlpha) {
-            alphaImageView.setVisibility(View.GONE);
-            alphaOverlay.setVisibility(View.GONE);
-            cursorAlpha.setVisibility(View.GONE);
-            // For removing alpha if the default color passed has some alpha value.
-            // FF will make all the initial 8 bits equal to one. Doing a bitwise OR will result in
-            // the all initial 8 bits equal to 1 and thus nullify the effect of any alpha in the default color.
-            // The rest bits are zero. Doing OR with them result in the original bits.
-            selectedColor = selectedColor | 0xFF000000;
-        } else {
-            alpha = Color.alpha(selectedColor);
-        }
-        Color.colorToHSV(selectedColor, currentColorsHSV);
-        viewNewColor.setBackgroundColor(selectedColor);
-        viewOldColor.setBackgroundColor(selectedColor);
-        colorPickerView.setHue(getHue());
+        if (context == null) {
+            return;
+        }
+        long showStart = System.nanoTime();
+        ColorPickerTracing.FrameSection firstFrame = ColorPickerTracing.beginFrameSection("ColorPickerPopUp#firstFrame");
+        ColorPickerTracing.beginSection("ColorPickerPopUp#show");
+        try {
+            endFirstFrameSection();
+            ensureInflated();
+            // A pop up shown again starts from the default color, not from the color of last session.
+            selectedColor = defaultColor != Integer.MAX_VALUE ? defaultColor : ColorConverter.hsvToColor(1f, 1f, 1f);
+            int alphaVisibility = showAlpha ? View.VISIBLE : View.GONE;
+            alphaSliderView.setVisibility(alphaVisibility);
+            cursorAlpha.setVisibility(alphaVisibility);
+            if (!showAlpha) {
+                // For removing alpha if the default color passed has some alpha value.
+                // FF will make all the initial 8 bits equal to one. Doing a bitwise OR will result in
+                // the all initial 8 bits equal to 1 and thus nullify the effect of any alpha in the default color.
+                // The rest bits are zero. Doing OR with them result in the original bits.
+                selectedColor = selectedColor | 0xFF000000;
+                alpha = 255;
+            } else {
+                alpha = ColorConverter.alpha(selectedColor);
+            }
+            ColorConverter.colorToHsv(selectedColor, currentColorsHSV);
+            viewNewColor.setBackgroundColor(selectedColor);
+            viewOldColor.setBackgroundColor(selectedColor);
+            colorPickerView.setHue(getHue());
+            colorPickerView.setTileCache(tileCache);
+            colorPickerView.setMetricsListener(metricsListener);
+            long inflation = inflationNanos;
+            inflationNanos = 0;
+            if (dialog == null) {
+                createDialog();
+            } else {
+                dialog.setTitle(dialogTitle);
+            }
+            // Cursors are placed once the dialog view is laid out (again, if it is shown again).
+            ViewTreeObserver viewTreeObserver = dialogView.getViewTreeObserver();
+            viewTreeObserver.removeOnGlobalLayoutListener(this);
+            viewTreeObserver.addOnGlobalLayoutListener(this);
+            dialog.show();
+
+            positiveButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_POSITIVE);
+            negativeButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_NEGATIVE);
+            positiveButton.setText(dialogPositiveButtonText);
+            negativeButton.setText(dialogNegativeButtonText);
+
+            if (metricsListener != null) {
+                metricsListener.onDialogShown(inflation, System.nanoTime() - showStart);
+            }
+            firstFrame.endAfterNextFrame(dialogView);
+            firstFrameSection = firstFrame;
+        } catch (RuntimeException e) {
+            firstFrame.end();
+            throw e;
+        } finally {
+            ColorPickerTracing.endSection();
+        }
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    private void createDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(context)
                 .setTitle(dialogTitle)
                 .setView(dialogView)
@@ -133,23 +330,20 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
                 })
                 .setCancelable(true);
         dialog = builder.create();
-        dialog.show();
-
-        positiveButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_POSITIVE);
-        negativeButton = ((AlertDialog) dialog).getButton(DialogInterface.BUTTON_NEGATIVE);
-
-        ViewTreeObserver viewTreeObserver = dialogView.getViewTreeObserver();
-        viewTreeObserver.addOnGlobalLayoutListener(this);
 
         colorPickerView.setOnTouchListener(this);
-        hueImageView.setOnTouchListener(this);
-        alphaImageView.setOnTouchListener(this);
+        hueSliderView.setOnTouchListener(this);
+        alphaSliderView.setOnTouchListener(this);
     }
 
     /**
-     * For handling touch events on colorPickerView, hueImageView, alphaImageView.
+     * For handling touch events on colorPickerView, hueSliderView, alphaSliderView.
      * Sets the hue, saturation, and value on the basis of current coordinates and the size of
      * respective views.
+     * <p>
+     * If touch frame coalescing is enabled, ACTION_MOVE events only record the latest position
+     * and it is applied once per frame (see applyPendingTouch()). ACTION_DOWN and ACTION_UP are
+     * always applied immediately.
      *
      * @param view        (view on which touch event happened)
      * @param motionEvent (type of motion event)
@@ -158,10 +352,96 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
     @SuppressLint("ClickableViewAccessibility")
     @Override
     public boolean onTouch(View view, MotionEvent motionEvent) {
-        if (view == colorPickerView && isRequiredMotionEvent(motionEvent)) {
-            float x = motionEvent.getX();
-            float y = motionEvent.getY();
+        if (!isRequiredMotionEvent(motionEvent) || !isTouchTarget(view)) {
+            return false;
+        }
+        float x = motionEvent.getX();
+        float y = motionEvent.getY();
+        if (touchSmoothing) {
+            if (motionEvent.getAction() != MotionEvent.ACTION_MOVE) {
+                // The color is picked exactly where the finger went down or lifted.
+                smoothedX = x;
+                smoothedY = y;
+            } else {
+                // Exponential smoothing over every sample reported since the last event.
+                for (int i = 0; i < motionEvent.getHistorySize(); i++) {
+                    smoothedX += TOUCH_SMOOTHING_FACTOR * (motionEvent.getHistoricalX(i) - smoothedX);
+                    smoothedY += TOUCH_SMOOTHING_FACTOR * (motionEvent.getHistoricalY(i) - smoothedY);
+                }
+                smoothedX += TOUCH_SMOOTHING_FACTOR * (x - smoothedX);
+                smoothedY += TOUCH_SMOOTHING_FACTOR * (y - smoothedY);
+            }
+            x = smoothedX;
+            y = smoothedY;
+        }
+        if (coalesceTouchEvents && motionEvent.getAction() == MotionEvent.ACTION_MOVE) {
+            pendingTouchView = view;
+            pendingTouchX = x;
+            pendingTouchY = y;
+            pendingTouchEventTime = motionEvent.getEventTime();
+            if (!touchFrameCallbackPosted) {
+                touchFrameCallbackPosted = true;
+                Choreographer.getInstance().postFrameCallback(touchFrameCallback);
+            }
+            return true;
+        }
+        if (touchFrameCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(touchFrameCallback);
+            touchFrameCallbackPosted = false;
+        }
+        pendingTouchView = null;
+        commitTouch(view, x, y, motionEvent.getEventTime());
+        return true;
+    }
 
+    /**
+     * Applies the latest touch position recorded by onTouch() (used when touch frame coalescing
+     * is enabled). Called once per frame by touchFrameCallback.
+     */
+    private void applyPendingTouch() {
+        touchFrameCallbackPosted = false;
+        View view = pendingTouchView;
+        if (view == null) {
+            return;
+        }
+        pendingTouchView = null;
+        commitTouch(view, pendingTouchX, pendingTouchY, pendingTouchEventTime);
+    }
+
+    /**
+     * Applies the touch and reports the touch-to-commit latency, if metrics are enabled.
+     *
+     * @param eventTime (MotionEvent.getEventTime() of the touch)
+     */
+    private void commitTouch(View view, float x, float y, long eventTime) {
+        if (metricsListener == null) {
+            applyTouch(view, x, y);
+            return;
+        }
+        ColorPickerTracing.beginSection("ColorPickerPopUp#onTouch");
+        try {
+            applyTouch(view, x, y);
+            metricsListener.onTouchCommitted(TimeUnit.MILLISECONDS.toNanos(SystemClock.uptimeMillis() - eventTime));
+        } finally {
+            ColorPickerTracing.endSection();
+        }
+    }
+
+    private boolean isTouchTarget(View view) {
+        return view == colorPickerView
+                || (hueSliderView != null && view == hueSliderView)
+                || (showAlpha && alphaSliderView != null && view == alphaSliderView);
+    }
+
+    /**
+     * Updates the color, cursor and preview on the basis of touch position (x, y) on view.
+     *
+     * @param view (colorPickerView, hueSliderView or alphaSliderView)
+     * @param x    (x coordinate relative to view)
+     * @param y    (y coordinate relative to view)
+     */
+    private void applyTouch(View view, float x, float y) {
+        if (view == colorPickerView) {
             if (x < 0f) {
                 x = 0.01f;
             }
@@ -178,49 +458,45 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
             setSaturation(1f / colorPickerView.getMeasuredWidth() * x);
             setValue(1f - (1f / colorPickerView.getMeasuredHeight() * y));
             moveCursorColorPicker();
-            viewNewColor.setBackgroundColor(getCurrentColor());
-            return true;
-        } else if (hueImageView != null && view == hueImageView && isRequiredMotionEvent(motionEvent)) {
-            float y = motionEvent.getY();
-            if (y < 0f) {
-                y = 0.01f;
+            selectedColor = getCurrentColor();
+            viewNewColor.setBackgroundColor(selectedColor);
+        } else if (view == hueSliderView) {
+            boolean horizontal = hueSliderView.getOrientation() == HueSliderView.HORIZONTAL;
+            float position = horizontal ? x : y;
+            int length = horizontal ? hueSliderView.getMeasuredWidth() : hueSliderView.getMeasuredHeight();
+            if (position < 0f) {
+                position = 0.01f;
             }
-            if (y > hueImageView.getMeasuredHeight()) {
-                y = hueImageView.getMeasuredHeight() - 0.01f;       // subtracted 0.01f to avoid cursor jumping from bottom to top.
+            if (position > length) {
+                position = length - 0.01f;       // subtracted 0.01f to avoid cursor jumping from end to start.
             }
-            float hue = 360f - 360f / hueImageView.getMeasuredHeight() * y;
+            float hue = 360f - 360f / length * position;
             if (hue == 360f) {
                 hue = 0f;
             }
             setHue(hue);
 
             colorPickerView.setHue(getHue());
-            viewNewColor.setBackgroundColor(getCurrentColor());
+            selectedColor = getCurrentColor();
+            viewNewColor.setBackgroundColor(selectedColor);
             moveCursorHue();
-            updateAlphaOverlay();
-            return true;
-
-        } else if (showAlpha && alphaImageView != null && view == alphaImageView && isRequiredMotionEvent(motionEvent)) {
-            float y = motionEvent.getY();
+        } else if (view == alphaSliderView) {
             if (y < 0f) {
                 y = 0.01f;
             }
-            if (y > alphaImageView.getMeasuredHeight()) {
-                y = alphaImageView.getMeasuredHeight() - 0.01f;     // subtracted 0.01f to avoid cursor jumping from bottom to top.
+            if (y > alphaSliderView.getMeasuredHeight()) {
+                y = alphaSliderView.getMeasuredHeight() - 0.01f;     // subtracted 0.01f to avoid cursor jumping from bottom to top.
             }
-            this.alpha = Math.round(255f - ((255f / alphaImageView.getMeasuredHeight()) * y));
-            // see javadoc of getCurrentColor().
-            selectedColor = this.alpha << 24 | getCurrentColor() & 0x00FFFFFF;
+            this.alpha = Math.round(255f - ((255f / alphaSliderView.getMeasuredHeight()) * y));
+            selectedColor = getCurrentColor();
             moveCursorAlpha();
             viewNewColor.setBackgroundColor(selectedColor);
-            return true;
         }
-        return false;
     }
 
     /**
-     * This method will be called on very first time the dialog would be showed.
-     * Used to set the positions of cursors/pointers for first time the dialog pops up.
+     * This method will be called on the first layout after each show().
+     * Used to set the positions of cursors/pointers when the dialog pops up.
      */
     @Override
     public void onGlobalLayout() {
@@ -230,6 +506,9 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
             updateAlphaOverlay();
         }
         moveCursorColorPicker();
+        if (tileCache != null && prewarmTileCache) {
+            tileCache.prewarm(colorPickerView.getMeasuredWidth(), colorPickerView.getMeasuredHeight(), getHue());
+        }
         dialogView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
     }
 
@@ -237,61 +516,80 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
      * This method is used to move the cursor/pointer in colorPickerView.
      * It sets the position of cursor according to the coordinates of touch on colorPickerView.
      * For accuracy, the x,y coordinates are found out using current saturation and value.
-     * Padding of the parent view and size of cursor is taken into account for setting margins.
+     * Size of cursor is taken into account for setting the position.
      */
     private void moveCursorColorPicker() {
         float x = getSaturation() * colorPickerView.getMeasuredWidth();
         float y = (1f - getValue()) * colorPickerView.getMeasuredHeight();
-        RelativeLayout.LayoutParams layoutParams = (RelativeLayout.LayoutParams) cursorColorPicker.getLayoutParams();
-        layoutParams.leftMargin = (int) (colorPickerView.getLeft() + x - Math.ceil(cursorColorPicker.getMeasuredWidth() / 2f) - colorPickerRelLayout.getPaddingLeft());
-        layoutParams.topMargin = (int) (colorPickerView.getTop() + y - Math.ceil(cursorColorPicker.getMeasuredHeight() / 2f) - colorPickerRelLayout.getPaddingTop());
-        cursorColorPicker.setLayoutParams(layoutParams);
+        moveCursor(cursorColorPicker,
+                (int) (colorPickerView.getLeft() + x - Math.ceil(cursorColorPicker.getMeasuredWidth() / 2f)),
+                (int) (colorPickerView.getTop() + y - Math.ceil(cursorColorPicker.getMeasuredHeight() / 2f)));
     }
 
     /**
-     * This method is used to move the cursor/pointer in hueImageView.
-     * It sets the position of cursor according to the coordinates of touch on hueImageView.
-     * For accuracy, the y coordinate is found out using current hue.
-     * Padding of the parent view and size of cursor is taken into account for setting margins.
+     * This method is used to move the cursor/pointer in hueSliderView.
+     * It sets the position of cursor according to the coordinates of touch on hueSliderView.
+     * For accuracy, the y (or x, if the slider is horizontal) coordinate is found out using current hue.
+     * Size of cursor is taken into account for setting the position.
      */
     private void moveCursorHue() {
-        float y = hueImageView.getMeasuredHeight() - (getHue() * hueImageView.getMeasuredHeight() / 360f);
-        if (y == hueImageView.getMeasuredHeight()) {
+        if (hueSliderView.getOrientation() == HueSliderView.HORIZONTAL) {
+            float x = hueSliderView.getMeasuredWidth() - (getHue() * hueSliderView.getMeasuredWidth() / 360f);
+            if (x == hueSliderView.getMeasuredWidth()) {
+                x = 0.1f;
+            }
+            moveCursor(cursorHue,
+                    (int) (hueSliderView.getLeft() + x - Math.ceil(cursorHue.getMeasuredWidth() / 2f)),
+                    (int) (hueSliderView.getTop() - Math.ceil(cursorHue.getMeasuredHeight() / 2f)));
+            return;
+        }
+        float y = hueSliderView.getMeasuredHeight() - (getHue() * hueSliderView.getMeasuredHeight() / 360f);
+        if (y == hueSliderView.getMeasuredHeight()) {
             y = 0.1f;
         }
-        RelativeLayout.LayoutParams layoutParams = (RelativeLayout.LayoutParams) cursorHue.getLayoutParams();
-        layoutParams.leftMargin = (int) (hueImageView.getLeft() - Math.ceil(cursorHue.getMeasuredWidth() / 2f) - colorPickerRelLayout.getPaddingLeft());
-        layoutParams.topMargin = (int) (hueImageView.getTop() + y - Math.ceil(cursorHue.getMeasuredHeight() / 2f) - colorPickerRelLayout.getPaddingTop());
-        cursorHue.setLayoutParams(layoutParams);
+        moveCursor(cursorHue,
+                (int) (hueSliderView.getLeft() - Math.ceil(cursorHue.getMeasuredWidth() / 2f)),
+                (int) (hueSliderView.getTop() + y - Math.ceil(cursorHue.getMeasuredHeight() / 2f)));
     }
 
     /**
-     * This method is used to move the cursor/pointer in alphaImageView (if visible).
-     * It sets the position of cursor according to the coordinates of touch on alphaImageView.
+     * This method is used to move the cursor/pointer in alphaSliderView (if visible).
+     * It sets the position of cursor according to the coordinates of touch on alphaSliderView.
      * For accuracy, the y coordinate is found out using current alpha.
-     * Padding of the parent view and size of cursor is taken into account for setting margins.
+     * Size of cursor is taken into account for setting the position.
      */
     private void moveCursorAlpha() {
-        final int measuredHeight = alphaImageView.getMeasuredHeight();
+        final int measuredHeight = alphaSliderView.getMeasuredHeight();
         float y = measuredHeight - ((this.alpha * measuredHeight) / 255f);
-        final RelativeLayout.LayoutParams layoutParams = (RelativeLayout.LayoutParams) cursorAlpha.getLayoutParams();
-        layoutParams.leftMargin = (int) (alphaImageView.getLeft() - Math.floor(cursorAlpha.getMeasuredWidth() / 2f) - colorPickerRelLayout.getPaddingLeft());
-        layoutParams.topMargin = (int) ((alphaImageView.getTop() + y) - Math.floor(cursorAlpha.getMeasuredHeight() / 2f) - colorPickerRelLayout.getPaddingTop());
-        cursorAlpha.setLayoutParams(layoutParams);
+        moveCursor(cursorAlpha,
+                (int) (alphaSliderView.getLeft() - Math.floor(cursorAlpha.getMeasuredWidth() / 2f)),
+                (int) ((alphaSliderView.getTop() + y) - Math.floor(cursorAlpha.getMeasuredHeight() / 2f)));
     }
 
     /**
-     * To change the gradient of overlay over the drawable of alphaImageView with repect to the
-     * selected color. Only used if showAlpha is set to true.
+     * Moves the cursor to (left, top) in its parent, the RelativeLayout R.id.colorPickerRelLayout of
+     * layout_colorpicker_popup.xml (which also holds colorPickerView and the sliders), using
+     * translation instead of margins. Translation is a render property, so dragging does not request a new layout pass.
+     *
+     * @param cursor (cursor to be moved)
+     * @param left   (left position of cursor in its parent)
+     * @param top    (top position of cursor in its parent)
+     */
+    private void moveCursor(View cursor, int left, int top) {
+        cursor.setTranslationX(left - cursor.getLeft());
+        cursor.setTranslationY(top - cursor.getTop());
+    }
+
+    /**
+     * To change the color of alpha slider with respect to the selected color.
+     * Only used if showAlpha is set to true.
      */
     private void updateAlphaOverlay() {
-        GradientDrawable gradientDrawable = new GradientDrawable(GradientDrawable.Orientation.TOP_BOTTOM,
-                new int[]{Color.HSVToColor(currentColorsHSV), Color.TRANSPARENT});
-        alphaOverlay.setBackground(gradientDrawable);
+        alphaSliderView.setColor(ColorConverter.hsvToColor(getHue(), getSaturation(), getValue()));
     }
 
     /**
-     * Selected color is equal to current value of HSV.
+     * Color currently picked (it does not change selectedColor), equal to current value of HSV.
      * In case, alpha is added then it must be counted.
      * Understanding the return statement :
      * <p>
@@ -307,12 +605,12 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
      * @return color (int)
      */
     private int getCurrentColor() {
-        selectedColor = Color.HSVToColor(currentColorsHSV);
-        return alpha << 24 | (selectedColor & 0X00FFFFFF);
+        int color = ColorConverter.hsvToColor(getHue(), getSaturation(), getValue());
+        return alpha << 24 | (color & 0X00FFFFFF);
     }
 
     /**
-     * Sets the hue on basis of position on touch in hueImageView.
+     * Sets the hue on basis of position on touch in hueSliderView.
      * Range of hue is 0-360.
      *
      * @param hue (float)
@@ -391,7 +689,7 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
      * @return this
      */
     public ColorPickerPopUp setDefaultColor(int defaultColor) {
-        this.selectedColor = defaultColor;
+        this.defaultColor = defaultColor;
         return this;
     }
 
@@ -419,6 +717,58 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
         return this;
     }
 
+    /**
+     * Sets the cache of pre-rendered saturation/value tiles used while scrubbing the hue.
+     * The same cache can be shared by many pop ups. By default, no cache is used.
+     *
+     * @param tileCache (cache of tiles, or null)
+     * @param prewarm   (fills the cache on a background thread when the pop up opens)
+     * @return this
+     */
+    public ColorPickerPopUp setSaturationValueTileCache(SaturationValueTileCache tileCache, boolean prewarm) {
+        this.tileCache = tileCache;
+        this.prewarmTileCache = prewarm;
+        return this;
+    }
+
+    /**
+     * Sets whether touch moves are applied at most once per display frame.
+     * On touch panels reporting faster than the display refreshes, only the latest position
+     * is applied on the next frame (using Choreographer). Default value is false.
+     *
+     * @param coalesceTouchEvents (to apply touch moves once per frame or not)
+     * @return this
+     */
+    public ColorPickerPopUp setTouchFrameCoalescing(boolean coalesceTouchEvents) {
+        this.coalesceTouchEvents = coalesceTouchEvents;
+        return this;
+    }
+
+    /**
+     * Sets whether touch positions are smoothed using the historical samples of MotionEvent.
+     * Default value is false.
+     *
+     * @param touchSmoothing (to smooth touch positions or not)
+     * @return this
+     */
+    public ColorPickerPopUp setTouchSmoothing(boolean touchSmoothing) {
+        this.touchSmoothing = touchSmoothing;
+        return this;
+    }
+
+    /**
+     * Sets the listener to receive render and touch metrics (draw durations of ColorPickerView,
+     * touch-to-commit latency, inflation and show time). Per touch and per draw trace sections
+     * are also emitted while it is set. By default, no metrics are collected.
+     *
+     * @param metricsListener (listener, or null)
+     * @return this
+     */
+    public ColorPickerPopUp setMetricsListener(OnPickerMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        return this;
+    }
+
     /**
      * Sets the title of dialog box. Default title is "Choose Color".
      *
@@ -509,20 +859,22 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
     }
 
     /**
-     * Get the view inflated in dialog box.
+     * Get the view inflated in dialog box. Inflates it if it is not inflated yet.
      *
      * @return dialogView
      */
     public View getDialogView() {
+        ensureInflated();
         return dialogView;
     }
 
     /**
      * Get the base/parent layout of dialog view for more customizations.
      *
-     * @return relativeLayout (colorPaletteRelLayout)
+     * @return relativeLayout (colorPickerBaseLayout)
      */
     public RelativeLayout getDialogBaseLayout() {
+        ensureInflated();
         return colorPickerBaseLayout;
     }
 
@@ -530,8 +882,124 @@ public class ColorPickerPopUp extends View implements ViewTreeObserver.OnGlobalL
      * Dismiss the dialog if it's visible on screen.
      */
     public void dismissDialog() {
+        endFirstFrameSection();
         if (dialog != null && dialog.isShowing()) {
             dialog.dismiss();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Ends the firstFrame trace section, if the pop up is dismissed before drawing its first frame.
+     */
+    private void endFirstFrameSection() {
+        if (firstFrameSection != null) {
+            firstFrameSection.end();
+            firstFrameSection = null;
+        }
+    }
+
+    /**
+     * Binds the pop up to the lifecycle of owner (an activity, fragment or its view lifecycle).
+     * The pop up is dismissed when the owner stops. When the owner is destroyed, it releases its
+     * views and the tiles of its SaturationValueTileCache (and the context, if it is destroyed
+     * too), so a pop up kept after that does not leak them. The next show() creates them again.
+     *
+     * @param owner (lifecycle owner, or null to unbind)
+     * @return this
+     */
+    public ColorPickerPopUp setLifecycleOwner(LifecycleOwner owner) {
+        if (lifecycleObserver != null) {
+            lifecycleObserver.unbind();
+            lifecycleObserver = null;
+        }
+        if (owner == null || context == null) {
+            return this;
+        }
+        lifecycleObserver = new PickerLifecycleObserver(context, owner) {
+            @Override
+            void onOwnerStopped() {
+                dismissDialog();
+            }
+
+            @Override
+            void onOwnerDestroyed(boolean releaseContext) {
+                lifecycleObserver = null;
+                release(releaseContext);
+            }
+        };
+        return this;
+    }
+
+    /**
+     * Releases the dialog, its views and the tiles of cache. The picked color is kept.
+     *
+     * @param releaseContext (whether to release the context too)
+     */
+    private void release(boolean releaseContext) {
+        endFirstFrameSection();
+        inflateGeneration++;
+        inflating = false;
+        inflatedListeners = null;
+        if (dialog != null) {
+            dialog.dismiss();
+            dialog = null;
+        }
+        if (touchFrameCallbackPosted) {
+            Choreographer.getInstance().removeFrameCallback(touchFrameCallback);
+            touchFrameCallbackPosted = false;
+        }
+        pendingTouchView = null;
+        if (dialogView != null) {
+            dialogView.getViewTreeObserver().removeOnGlobalLayoutListener(this);
+        }
+        if (tileCache != null) {
+            tileCache.clear();
+        }
+        dialogView = null;
+        viewOldColor = null;
+        viewNewColor = null;
+        cursorColorPicker = null;
+        colorPickerView = null;
+        colorPickerBaseLayout = null;
+        hueSliderView = null;
+        alphaSliderView = null;
+        cursorHue = null;
+        cursorAlpha = null;
+        positiveButton = null;
+        negativeButton = null;
+        if (releaseContext) {
+            context = null;
+        }
+    }
+
+    /**
+     * Inflater without any factory (like the one of AsyncLayoutInflater), used off the main thread.
+     */
+    private static final class BasicInflater extends LayoutInflater {
+        private static final String[] CLASS_PREFIXES = {"android.widget.", "android.webkit.", "android.app."};
+
+        BasicInflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BasicInflater(newContext);
+        }
+
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : CLASS_PREFIXES) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException e) {
+                    // tried with the next prefix.
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+/**
+ * Receives the trace sections of the library (see ColorPickerTracing). The default tracer writes
+ * them to the system trace using androidx.tracing. A custom tracer can record them, for example
+ * to check them in tests.
+ * <p>
+ * Sections are begun and ended on the same thread, but not always on main thread (layouts and
+ * palettes may be prepared on the background thread), so a tracer must be thread safe.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public interface ColorPickerTracer {
+    /**
+     * Begins a section on the current thread. Sections nest.
+     */
+    void beginSection(String sectionName);
+
+    /**
+     * Ends the last section begun on the current thread.
+     */
+    void endSection();
+
+    /**
+     * Begins a section which may end on another thread or after other sections (like the time
+     * until the first frame of a dialog). Cookie tells apart sections of the same name.
+     */
+    void beginAsyncSection(String sectionName, int cookie);
+
+    /**
+     * Ends the section begun with the same name and cookie.
+     */
+    void endAsyncSection(String sectionName, int cookie);
+}
@@ -0,0 +1,188 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.tracing.Trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trace sections of opening a picker, emitted whether or not a metrics listener is set. They
+ * are written to the system trace by default (a section costs a check of the enabled flag when
+ * nothing is tracing), or passed to the tracer set using setTracer().
+ * <p>
+ * Sections, where Xxx is ColorPickerDialog, ColorPickerBottomSheetDialog or ColorPickerPopUp:
+ * <ul>
+ * <li>Xxx#inflate : inflation of the dialog layout.</li>
+ * <li>ColorPickerBuilder#parseColors, PaletteLoader#parseColors : reading of the colors.</li>
+ * <li>Xxx#createAdapter : construction and configuration of the ColorAdapter.</li>
+ * <li>ColorAdapter#firstBind : first bind of an adapter.</li>
+ * <li>ColorPickerView#firstDraw : first draw of a ColorPickerView.</li>
+ * <li>Xxx#show : the show() call itself.</li>
+ * <li>Xxx#firstFrame (async) : from the start of show() until the dialog has drawn a frame.</li>
+ * </ul>
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class ColorPickerTracing {
+    private static final ColorPickerTracer SYSTEM_TRACER = new ColorPickerTracer() {
+        @Override
+        public void beginSection(String sectionName) {
+            Trace.beginSection(sectionName);
+        }
+
+        @Override
+        public void endSection() {
+            Trace.endSection();
+        }
+
+        @Override
+        public void beginAsyncSection(String sectionName, int cookie) {
+            Trace.beginAsyncSection(sectionName, cookie);
+        }
+
+        @Override
+        public void endAsyncSection(String sectionName, int cookie) {
+            Trace.endAsyncSection(sectionName, cookie);
+        }
+    };
+
+    private static volatile ColorPickerTracer tracer = SYSTEM_TRACER;
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+
+    private ColorPickerTracing() {
+    }
+
+    /**
+     * Sets the tracer receiving all the sections of library.
+     *
+     * @param tracer (tracer, or null for the system trace)
+     */
+    public static void setTracer(ColorPickerTracer tracer) {
+        ColorPickerTracing.tracer = tracer != null ? tracer : SYSTEM_TRACER;
+    }
+
+    public static ColorPickerTracer getTracer() {
+        return tracer;
+    }
+
+    static void beginSection(String sectionName) {
+        tracer.beginSection(sectionName);
+    }
+
+    static void endSection() {
+        tracer.endSection();
+    }
+
+    /**
+     * Begins an async section, which ends after the next frame drawn by a view (see
+     * FrameSection.endAfterNextFrame()).
+     *
+     * @param sectionName (name of section)
+     * @return section (to end it with)
+     */
+    static FrameSection beginFrameSection(String sectionName) {
+        FrameSection section = new FrameSection(tracer, sectionName, nextCookie.incrementAndGet());
+        section.tracer.beginAsyncSection(sectionName, section.cookie);
+        return section;
+    }
+
+    /**
+     * An async section ending after the next frame drawn by a view, or as soon as the view is
+     * detached or end() is called (the dialog is dismissed before its first frame), whichever is
+     * first. It is ended only once. Must be used on main thread.
+     */
+    static final class FrameSection implements ViewTreeObserver.OnPreDrawListener, View.OnAttachStateChangeListener {
+        private final ColorPickerTracer tracer;
+        private final String sectionName;
+        private final int cookie;
+        private View view;
+        private boolean ended = false;
+        private final Runnable endRunnable = new Runnable() {
+            @Override
+            public void run() {
+                end();
+            }
+        };
+
+        private FrameSection(ColorPickerTracer tracer, String sectionName, int cookie) {
+            this.tracer = tracer;
+            this.sectionName = sectionName;
+            this.cookie = cookie;
+        }
+
+        /**
+         * Ends the section after the next frame drawn by view (the frame is drawn by the traversal
+         * following its pre-draw, so the section ends on the next message after it).
+         *
+         * @param view (view whose next frame ends the section)
+         */
+        void endAfterNextFrame(View view) {
+            if (ended) {
+                return;
+            }
+            this.view = view;
+            view.getViewTreeObserver().addOnPreDrawListener(this);
+            view.addOnAttachStateChangeListener(this);
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            removeListeners();
+            ColorPickerExecutors.mainThread().post(endRunnable);
+            return true;
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View view) {
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+            end();
+        }
+
+        /**
+         * Ends the section now, if it has not ended yet.
+         */
+        void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            removeListeners();
+            tracer.endAsyncSection(sectionName, cookie);
+        }
+
+        private void removeListeners() {
+            if (view == null) {
+                return;
+            }
+            // Not the observer it was added to, if the view has been attached since then.
+            ViewTreeObserver viewTreeObserver = view.getViewTreeObserver();
+            if (viewTreeObserver.isAlive()) {
+                viewTreeObserver.removeOnPreDrawListener(this);
+            }
+            view.removeOnAttachStateChangeListener(this);
+            view = null;
+        }
+    }
+}
@@ -16,77 +16,202 @@ limitations under the License.
 
 package com.mrudultora.colorpicker;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.ComposeShader;
 import android.graphics.LinearGradient;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
+import android.graphics.Rect;
 import android.graphics.Shader;
+import android.os.Build;
 import android.util.AttributeSet;
 import android.view.View;
 
 import androidx.annotation.Nullable;
 
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
+import com.mrudultora.colorpicker.util.ColorConverter;
+
 /**
  * This ColorPickerView extends View class.
  * Here, I have used two Shader objects. One for horizontal gradient and one for vertical gradient.
+ * Shaders are only rebuilt when the size or the hue changes, so onDraw does not allocate.
+ * <p>
+ * From API 28 onwards ComposeShader (made of two LinearGradients) is supported by the hardware
+ * pipeline, so both gradients are combined in a single shader. On older API levels the value
+ * gradient is drawn as a separate pass (transparent to black) over the saturation gradient, which
+ * gives the same result without falling back to a software layer.
+ * <p>
+ * If a SaturationValueTileCache is set, then a cached tile of the current hue is drawn instead.
  *
  * @author Mrudul Tora (mrudultora@gmail.com)
  * @since 6 May, 2021
  */
 public class ColorPickerView extends View {
-    Paint paint;
+    private static final boolean COMPOSE_SHADER_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.P;
+
+    final Paint paint = new Paint();
+    final Paint valuePaint = new Paint();
+    final Matrix verticalMatrix = new Matrix();
+    final Paint tilePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    final Rect tileRect = new Rect();
+    SaturationValueTileCache tileCache;
+    OnPickerMetricsListener metricsListener;
     Shader verticalShader;
     Shader horizontalShader;
     float[] hsv = new float[]{1f, 1f, 1f};  // hue (0-360), saturation (0-1), value (0-1)
+    private int shaderHue = -1;              // rgb value for which horizontalShader was built.
+    private boolean shaderDirty = true;
+    private boolean drawn = false;           // whether the view has been drawn (for tracing the first draw).
+    // Posted by tileCache once a missing tile is rendered, so that it is drawn.
+    private final Runnable tileRendered = new Runnable() {
+        @Override
+        public void run() {
+            invalidate();
+        }
+    };
 
     public ColorPickerView(Context context) {
         super(context);
+        init();
     }
 
     public ColorPickerView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
+        init();
     }
 
     public ColorPickerView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    /**
+     * x0=0, y0=0, x1=0, y1=1 (these are coordinates, assume similar to graph).
+     * The vertical gradient is created only once and stretched to the height of view using
+     * a local matrix, as its value is same for every rgb.
+     * On API 28+ it goes from Color.WHITE to Color.BLACK and is multiplied with horizontal gradient.
+     * Below API 28 it goes from Color.TRANSPARENT to Color.BLACK and is drawn over horizontal gradient.
+     */
+    private void init() {
+        if (COMPOSE_SHADER_SUPPORTED) {
+            verticalShader = new LinearGradient(0f, 0f, 0f, 1f, Color.WHITE, Color.BLACK, Shader.TileMode.CLAMP);
+        } else {
+            verticalShader = new LinearGradient(0f, 0f, 0f, 1f, Color.TRANSPARENT, Color.BLACK, Shader.TileMode.CLAMP);
+            valuePaint.setShader(verticalShader);
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        verticalMatrix.setScale(1f, h);
+        verticalShader.setLocalMatrix(verticalMatrix);
+        shaderDirty = true;
     }
 
     /**
-     * x0=0, y0=0, x1=0, y1=height (these are coordinates, assume similar to graph).
-     * Color.WHITE is the start color (at (x0,y0)).
-     * Color.BLACK is the end color (at (x1,y1)).
-     * In between there is a vertical linear gradient.
-     * (Vertical gradient is not needed to be initialized again as its value is same for every rgb)
-     * <p>
      * x0=0, y0=0, x1=width, y1=0 (these are coordinates, assume similar to graph).
      * Color.WHITE is the start color (at (x0,y0)).
      * rgbValue is the end color (at (x1,y1)).
      * In between there is a horizontal linear gradient.
+     * <p>
+     * The horizontal gradient is only rebuilt if the size or the hue has changed since last draw.
      *
      * @param canvas (canvas)
      */
-    @SuppressLint("DrawAllocation")
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        if (paint == null) {
-            paint = new Paint();
+        boolean firstDraw = !drawn;
+        if (firstDraw) {
+            drawn = true;
+            ColorPickerTracing.beginSection("ColorPickerView#firstDraw");
+        }
+        try {
+            if (metricsListener == null) {
+                drawPlane(canvas);
+            } else {
+                ColorPickerTracing.beginSection("ColorPickerView#onDraw");
+                try {
+                    long start = System.nanoTime();
+                    drawPlane(canvas);
+                    metricsListener.onViewDrawn(System.nanoTime() - start);
+                } finally {
+                    ColorPickerTracing.endSection();
+                }
+            }
+        } finally {
+            if (firstDraw) {
+                ColorPickerTracing.endSection();
+            }
+        }
+    }
+
+    private void drawPlane(Canvas canvas) {
+        if (tileCache != null) {
+            // A missing tile is rendered in background, the shaders are drawn until then.
+            Bitmap tile = tileCache.getTile(hsv[0], this.getMeasuredWidth(), this.getMeasuredHeight(), tileRendered);
+            if (tile != null) {
+                tileRect.set(0, 0, this.getMeasuredWidth(), this.getMeasuredHeight());
+                canvas.drawBitmap(tile, null, tileRect, tilePaint);
+                return;
+            }
+        }
+        int rgbValue = ColorConverter.hsvToColor(hsv[0], hsv[1], hsv[2]);
+        if (shaderDirty || rgbValue != shaderHue) {
+            updateShader(rgbValue);
         }
-        int rgbValue = Color.HSVToColor(hsv);
-        verticalShader = new LinearGradient(0f, 0f, 0f, this.getMeasuredHeight(), Color.WHITE, Color.BLACK, Shader.TileMode.CLAMP);
-        horizontalShader = new LinearGradient(0f, 0f, this.getMeasuredWidth(), 0f, Color.WHITE, rgbValue, Shader.TileMode.CLAMP);
-        ComposeShader composeShader = new ComposeShader(verticalShader, horizontalShader, PorterDuff.Mode.MULTIPLY);
-        paint.setShader(composeShader);
         canvas.drawRect(0f, 0f, this.getMeasuredWidth(), this.getMeasuredHeight(), paint);
-        setLayerType(LAYER_TYPE_SOFTWARE, paint);
+        if (!COMPOSE_SHADER_SUPPORTED) {
+            canvas.drawRect(0f, 0f, this.getMeasuredWidth(), this.getMeasuredHeight(), valuePaint);
+        }
+    }
+
+    private void updateShader(int rgbValue) {
+        horizontalShader = new LinearGradient(0f, 0f, this.getMeasuredWidth(), 0f, Color.WHITE, rgbValue, Shader.TileMode.CLAMP);
+        if (COMPOSE_SHADER_SUPPORTED) {
+            paint.setShader(new ComposeShader(verticalShader, horizontalShader, PorterDuff.Mode.MULTIPLY));
+        } else {
+            paint.setShader(horizontalShader);
+        }
+        shaderHue = rgbValue;
+        shaderDirty = false;
     }
 
     public void setHue(float hue) {
+        if (this.hsv[0] == hue) {
+            return;
+        }
         this.hsv[0] = hue;
         invalidate();
     }
+
+    /**
+     * Sets the cache of pre-rendered tiles to be used for drawing. Passing null would draw the
+     * gradients using shaders (default).
+     *
+     * @param tileCache (cache of tiles)
+     */
+    public void setTileCache(SaturationValueTileCache tileCache) {
+        this.tileCache = tileCache;
+        invalidate();
+    }
+
+    public SaturationValueTileCache getTileCache() {
+        return tileCache;
+    }
+
+    /**
+     * Sets the listener to receive draw durations. Passing null disables the metrics.
+     *
+     * @param metricsListener (listener)
+     */
+    public void setMetricsListener(OnPickerMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
 }
@@ -0,0 +1,174 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.util.DisplayMetrics;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.util.ColorItemShape;
+
+/**
+ * Process-wide pool of palette items shared by ColorPickerDialog and ColorPickerBottomSheetDialog.
+ * It is disabled by default. Once enabled, the items of a dialog are recycled into the pool when
+ * it is dismissed and reused by the next dialog, so opening a palette again does not create its
+ * items again. Items can also be created ahead of time using prewarm().
+ * <p>
+ * The pool keeps only the items of a screenful of palette (plus a few rows), whatever the number
+ * of colors in palette is, as RecyclerView never has more items than that.
+ * <p>
+ * Pooled items are created with the application context, so the pool does not keep any activity.
+ * All the methods must be called on main thread.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class ColorPickerViewPool {
+    private static final int DEFAULT_CAPACITY = 30;
+    private static final int PREWARM_BATCH = 4;     // items created per idle callback.
+    private static final int EXTRA_ROWS = 2;        // rows scrolled in while others are recycled.
+
+    private static boolean enabled = false;
+    private static RecyclerView.RecycledViewPool pool;
+    private static int capacity = 0;
+
+    private ColorPickerViewPool() {
+    }
+
+    /**
+     * Enables or disables the shared pool. Disabling it also removes the pooled items.
+     *
+     * @param enabled (true to share the items between pickers)
+     */
+    public static void setEnabled(boolean enabled) {
+        ColorPickerViewPool.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables the pool and creates count items in the background of main thread, a few at a time
+     * whenever its message queue is idle. Items already in the pool are counted. The count is
+     * limited to the number of default sized items which fit on screen (plus a few rows).
+     *
+     * @param context (any context, only its application context is kept)
+     * @param count   (number of items, usually the number of colors visible in palette)
+     */
+    public static void prewarm(Context context, int count) {
+        setEnabled(true);
+        Resources resources = context.getResources();
+        int itemSizePx = resources.getDimensionPixelSize(R.dimen.palette_item_width)
+                + 2 * resources.getDimensionPixelSize(R.dimen.palette_item_margin);
+        DisplayMetrics displayMetrics = resources.getDisplayMetrics();
+        int columns = Math.max(1, displayMetrics.widthPixels / itemSizePx);
+        final int prewarmCount = Math.min(count, visibleItemCount(resources, columns, itemSizePx));
+        ensureCapacity(prewarmCount);
+        final Context applicationContext = context.getApplicationContext();
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            private ColorAdapter adapter;
+            private FrameLayout parent;
+
+            @Override
+            public boolean queueIdle() {
+                if (!enabled) {
+                    return false;
+                }
+                if (adapter == null) {
+                    adapter = new ColorAdapter(new ColorPalette(0), applicationContext, ColorItemShape.SQUARE, null);
+                    parent = new FrameLayout(applicationContext);
+                }
+                RecyclerView.RecycledViewPool recycledViewPool = get();
+                for (int i = 0; i < PREWARM_BATCH; i++) {
+                    if (recycledViewPool.getRecycledViewCount(0) >= prewarmCount) {
+                        return false;
+                    }
+                    recycledViewPool.putRecycledView(adapter.createViewHolder(parent, 0));
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Removes all the pooled items.
+     */
+    public static void clear() {
+        if (pool != null) {
+            pool.clear();
+        }
+    }
+
+    static RecyclerView.RecycledViewPool get() {
+        if (pool == null) {
+            pool = new RecyclerView.RecycledViewPool();
+            capacity = Math.max(capacity, DEFAULT_CAPACITY);
+            pool.setMaxRecycledViews(0, capacity);
+        }
+        return pool;
+    }
+
+    /**
+     * Grows the pool (it never shrinks), so that itemCount items can be kept.
+     */
+    static void ensureCapacity(int itemCount) {
+        if (itemCount > capacity) {
+            capacity = itemCount;
+            if (pool != null) {
+                pool.setMaxRecycledViews(0, capacity);
+            }
+        }
+    }
+
+    /**
+     * @return number of items of itemSizePx (including margins) which fit on screen in columns,
+     * plus EXTRA_ROWS rows
+     */
+    static int visibleItemCount(Resources resources, int columns, int itemSizePx) {
+        int rows = resources.getDisplayMetrics().heightPixels / Math.max(1, itemSizePx) + 1;
+        return columns * (rows + EXTRA_ROWS);
+    }
+
+    /**
+     * Sets the layout manager and adapter of recyclerView, using the shared pool if it is enabled.
+     * With the pool, the items are recycled into it when the recyclerView is detached (the dialog
+     * is dismissed), and the adapter is swapped in so that RecyclerView does not clear the pool.
+     */
+    static void setAdapter(RecyclerView recyclerView, GridLayoutManager layoutManager, ColorAdapter adapter) {
+        recyclerView.setLayoutManager(layoutManager);
+        if (!enabled) {
+            recyclerView.setAdapter(adapter);
+            return;
+        }
+        ColorAdapter.BindProfile profile = adapter.getBindProfile();
+        ensureCapacity(visibleItemCount(recyclerView.getResources(), layoutManager.getSpanCount(),
+                profile.itemSizePx + 2 * profile.itemMarginPx));
+        recyclerView.setRecycledViewPool(get());
+        layoutManager.setRecycleChildrenOnDetach(true);
+        recyclerView.swapAdapter(adapter, false);
+    }
+}
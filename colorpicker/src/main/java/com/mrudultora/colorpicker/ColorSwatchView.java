@@ -0,0 +1,279 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Outline;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewOutlineProvider;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.graphics.drawable.DrawableCompat;
+
+import com.mrudultora.colorpicker.util.ColorItemShape;
+
+/**
+ * Palette item used by ColorAdapter. The square (with rounded corners), circle or custom drawable
+ * and the tick mark are drawn in a single onDraw, so an item is a single view with nothing to
+ * inflate.
+ * <p>
+ * The tick path and the paints are shared by all the swatches. They are only used on main thread
+ * and the color is set just before drawing. The shadow comes from the elevation and the outline
+ * of shape, which is drawn by the RenderThread.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public class ColorSwatchView extends View {
+    private static final float TICK_VIEWPORT = 24f;
+    // Material "done" icon, in its 24x24 viewport.
+    private static final Path TICK_PATH = createTickPath();
+    private static final Paint FILL_PAINT = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private static final Paint TICK_PAINT = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private static final ViewOutlineProvider SHAPE_OUTLINE = new ViewOutlineProvider() {
+        @Override
+        public void getOutline(View view, Outline outline) {
+            ((ColorSwatchView) view).getShapeOutline(outline);
+        }
+    };
+
+    private final int defaultSizePx;
+    private int color = Color.TRANSPARENT;
+    private boolean checked = false;
+    private int tickColor = Color.WHITE;
+    private int tickSizePx;
+    private float cornerRadiusPx;
+    private ColorItemShape shape = ColorItemShape.SQUARE;
+    private Drawable itemDrawable;      // drawn (tinted with color) instead of the shape, if not null.
+
+    public ColorSwatchView(Context context) {
+        this(context, null);
+    }
+
+    public ColorSwatchView(Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public ColorSwatchView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        Resources resources = getResources();
+        defaultSizePx = resources.getDimensionPixelSize(R.dimen.palette_item_width);
+        tickSizePx = resources.getDimensionPixelSize(R.dimen.palette_item_tick_size);
+        cornerRadiusPx = resources.getDimension(R.dimen.palette_item_corner_radius);
+        setElevation(resources.getDimension(R.dimen.palette_item_elevation));
+        setOutlineProvider(SHAPE_OUTLINE);
+        setClickable(true);
+        setFocusable(true);
+    }
+
+    private static Path createTickPath() {
+        Path path = new Path();
+        path.moveTo(9f, 16.17f);
+        path.lineTo(4.83f, 12f);
+        path.lineTo(3.41f, 13.41f);
+        path.lineTo(9f, 19f);
+        path.lineTo(21f, 7f);
+        path.lineTo(19.59f, 5.59f);
+        path.close();
+        return path;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(resolveSize(defaultSizePx, widthMeasureSpec),
+                resolveSize(defaultSizePx, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (itemDrawable != null) {
+            itemDrawable.setBounds(0, 0, w, h);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+        if (itemDrawable != null) {
+            itemDrawable.draw(canvas);
+        } else {
+            FILL_PAINT.setColor(color);
+            if (shape == ColorItemShape.CIRCLE) {
+                canvas.drawOval(0f, 0f, width, height, FILL_PAINT);
+            } else {
+                canvas.drawRoundRect(0f, 0f, width, height, cornerRadiusPx, cornerRadiusPx, FILL_PAINT);
+            }
+        }
+        if (checked) {
+            float scale = tickSizePx / TICK_VIEWPORT;
+            TICK_PAINT.setColor(tickColor);
+            int saveCount = canvas.save();
+            canvas.translate((width - tickSizePx) / 2f, (height - tickSizePx) / 2f);
+            canvas.scale(scale, scale);
+            canvas.drawPath(TICK_PATH, TICK_PAINT);
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+    private void getShapeOutline(Outline outline) {
+        if (itemDrawable != null) {
+            itemDrawable.getOutline(outline);
+        } else if (shape == ColorItemShape.CIRCLE) {
+            outline.setOval(0, 0, getWidth(), getHeight());
+        } else {
+            outline.setRoundRect(0, 0, getWidth(), getHeight(), cornerRadiusPx);
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(@NonNull Drawable who) {
+        return who == itemDrawable || super.verifyDrawable(who);
+    }
+
+    public void setColor(int color) {
+        if (this.color == color) {
+            return;
+        }
+        this.color = color;
+        if (itemDrawable != null) {
+            DrawableCompat.setTint(itemDrawable, color);
+        }
+        invalidate();
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    /**
+     * Shows or hides the tick mark.
+     *
+     * @param checked (true to show the tick mark)
+     */
+    public void setChecked(boolean checked) {
+        if (this.checked == checked) {
+            return;
+        }
+        this.checked = checked;
+        invalidate();
+    }
+
+    public boolean isChecked() {
+        return checked;
+    }
+
+    public void setTickColor(int tickColor) {
+        if (this.tickColor == tickColor) {
+            return;
+        }
+        this.tickColor = tickColor;
+        if (checked) {
+            invalidate();
+        }
+    }
+
+    public int getTickColor() {
+        return tickColor;
+    }
+
+    /**
+     * Sets the size of tick mark (24dp by default).
+     *
+     * @param tickSizePx (size in pixels)
+     */
+    public void setTickSize(int tickSizePx) {
+        if (this.tickSizePx == tickSizePx) {
+            return;
+        }
+        this.tickSizePx = tickSizePx;
+        if (checked) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Sets the shape drawn when there is no custom drawable. Corners of SQUARE are rounded by the
+     * corner radius, CIRCLE fills the size of view.
+     *
+     * @param shape (shape of item)
+     */
+    public void setShape(ColorItemShape shape) {
+        if (this.shape == shape) {
+            return;
+        }
+        this.shape = shape;
+        invalidateOutline();
+        invalidate();
+    }
+
+    public ColorItemShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Sets the corner radius of SQUARE shape (5dp by default).
+     *
+     * @param cornerRadiusPx (radius in pixels)
+     */
+    public void setCornerRadius(float cornerRadiusPx) {
+        if (this.cornerRadiusPx == cornerRadiusPx) {
+            return;
+        }
+        this.cornerRadiusPx = cornerRadiusPx;
+        invalidateOutline();
+        invalidate();
+    }
+
+    /**
+     * Sets the drawable drawn (tinted with the color) instead of the shape. The drawable should
+     * not be shared with other views, as it is tinted and its bounds are set.
+     *
+     * @param itemDrawable (drawable, or null to draw the shape)
+     */
+    public void setItemDrawable(@Nullable Drawable itemDrawable) {
+        if (this.itemDrawable == itemDrawable) {
+            return;
+        }
+        if (this.itemDrawable != null) {
+            this.itemDrawable.setCallback(null);
+        }
+        this.itemDrawable = itemDrawable;
+        if (itemDrawable != null) {
+            itemDrawable.setCallback(this);
+            itemDrawable.setBounds(0, 0, getWidth(), getHeight());
+            DrawableCompat.setTint(itemDrawable, color);
+        }
+        invalidateOutline();
+        invalidate();
+    }
+
+    @Nullable
+    public Drawable getItemDrawable() {
+        return itemDrawable;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Hue slider used in ColorPickerPopUp. The hue strip is drawn with a LinearGradient at the exact
+ * size of view (instead of scaling a bitmap), so it stays sharp on every density.
+ * Hue goes from 360 at the start (top or left) to 0 at the end (bottom or right).
+ * <p>
+ * Orientation is set using android:orientation (vertical by default). The gradient is created
+ * again only when the size of view changes.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public class HueSliderView extends View {
+    public static final int HORIZONTAL = LinearLayout.HORIZONTAL;
+    public static final int VERTICAL = LinearLayout.VERTICAL;
+
+    // Hue 360, 300, 240, 180, 120, 60, 0.
+    private static final int[] HUE_COLORS = new int[]{
+            0xFFFF0000, 0xFFFF00FF, 0xFF0000FF, 0xFF00FFFF, 0xFF00FF00, 0xFFFFFF00, 0xFFFF0000
+    };
+
+    private final Paint paint = new Paint();
+    private int orientation = VERTICAL;
+
+    public HueSliderView(Context context) {
+        super(context);
+    }
+
+    public HueSliderView(Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public HueSliderView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.HueSliderView, defStyleAttr, 0);
+        orientation = typedArray.getInt(R.styleable.HueSliderView_android_orientation, VERTICAL);
+        typedArray.recycle();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateShader();
+    }
+
+    private void updateShader() {
+        if (orientation == HORIZONTAL) {
+            paint.setShader(new LinearGradient(0f, 0f, getWidth(), 0f, HUE_COLORS, null, Shader.TileMode.CLAMP));
+        } else {
+            paint.setShader(new LinearGradient(0f, 0f, 0f, getHeight(), HUE_COLORS, null, Shader.TileMode.CLAMP));
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawRect(0f, 0f, getWidth(), getHeight(), paint);
+    }
+
+    /**
+     * Sets the orientation of slider.
+     *
+     * @param orientation (HORIZONTAL or VERTICAL)
+     */
+    public void setOrientation(int orientation) {
+        if (this.orientation == orientation) {
+            return;
+        }
+        this.orientation = orientation;
+        updateShader();
+        invalidate();
+    }
+
+    public int getOrientation() {
+        return orientation;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import com.mrudultora.colorpicker.listeners.OnPaletteLoadListener;
+
+/**
+ * Streams the colors of a PaletteLoader into the palette of a dialog. Before the dialog is shown
+ * the colors are just added to the palette. Once it is shown, they go through the adapter, which
+ * shows placeholder items for the colors still loading.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+final class PaletteLoadTarget implements OnPaletteLoadListener {
+    private final ColorPalette colorPalette;
+    private final int defaultColor;
+    private ColorAdapter colorAdapter;
+    private int expectedSize = -1;
+    private int loadedCount = 0;
+    private int skipCount = 0;              // colors replayed by PaletteLoader which were received already.
+    private boolean finished = false;
+
+    PaletteLoadTarget(ColorPalette colorPalette, int defaultColor) {
+        this.colorPalette = colorPalette;
+        this.defaultColor = defaultColor;
+    }
+
+    /**
+     * Sets the adapter of shown dialog, which then receives the colors.
+     */
+    void setAdapter(ColorAdapter colorAdapter) {
+        this.colorAdapter = colorAdapter;
+        updatePlaceholders();
+    }
+
+    /**
+     * Called before the target is added to its PaletteLoader again (after being removed). The
+     * colors replayed by the loader which have been received already are then skipped.
+     */
+    void prepareToReattach() {
+        skipCount = loadedCount;
+    }
+
+    @Override
+    public void onPaletteSizeKnown(int size) {
+        expectedSize = size;
+        updatePlaceholders();
+    }
+
+    @Override
+    public void onColorsLoaded(int[] colors, int offset, int count) {
+        if (skipCount > 0) {
+            int skipped = Math.min(skipCount, count);
+            skipCount -= skipped;
+            offset += skipped;
+            count -= skipped;
+            if (count == 0) {
+                return;
+            }
+        }
+        loadedCount += count;
+        if (colorAdapter == null) {
+            colorPalette.addAll(colors, offset, count);
+            return;
+        }
+        colorAdapter.appendColors(colors, offset, count);
+        if (defaultColor != 0 && colorAdapter.getColorPosition() == -1) {
+            colorAdapter.setDefaultColor(defaultColor);
+        }
+    }
+
+    @Override
+    public void onPaletteLoaded(Exception error) {
+        finished = true;
+        updatePlaceholders();
+    }
+
+    private void updatePlaceholders() {
+        if (colorAdapter == null) {
+            return;
+        }
+        if (finished || expectedSize == -1) {
+            colorAdapter.setPlaceholderCount(0);
+        } else {
+            colorAdapter.setPlaceholderCount(colorPalette.size() + expectedSize - loadedCount);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import com.mrudultora.colorpicker.listeners.OnPaletteLoadListener;
+import com.mrudultora.colorpicker.util.ColorCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads the colors of a palette on the background executor and delivers them on main thread in
+ * batches, so that large resource arrays or lists of hex strings do not block the UI.
+ * Loading starts as soon as the loader is created, so it can be created early (for example at
+ * startup) and passed to ColorPickerBuilder.setColors(PaletteLoader) later. A dialog shown before
+ * the loading is over shows placeholder items, which are filled as the colors arrive.
+ * <p>
+ * Except for the static factory methods, all the methods must be called on main thread.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class PaletteLoader {
+    private static final int BATCH_SIZE = 64;
+
+    private volatile boolean cancelled = false;
+
+    // Accessed on main thread only.
+    private final ArrayList<OnPaletteLoadListener> listeners = new ArrayList<>();
+    private int[] colors = new int[0];
+    private int size = 0;
+    private int expectedSize = -1;
+    private boolean finished = false;
+    private Exception error;
+
+    /**
+     * Source of colors, read on the background thread.
+     */
+    private interface Source {
+        /**
+         * @return number of colors
+         */
+        int open();
+
+        /**
+         * @return color as unsigned long, or ColorCodec.INVALID to skip the entry
+         */
+        long getColor(int index);
+
+        void close();
+    }
+
+    private PaletteLoader() {
+    }
+
+    /**
+     * Starts loading the colors of an array resource (like the arrays.xml of this library).
+     *
+     * @param context (context to resolve the resources)
+     * @param resId   (Array resource)
+     * @return loader
+     */
+    public static PaletteLoader fromResource(Context context, final int resId) {
+        final Resources resources = context.getResources();
+        PaletteLoader paletteLoader = new PaletteLoader();
+        paletteLoader.start(new Source() {
+            private TypedArray typedArray;
+
+            @Override
+            public int open() {
+                typedArray = resources.obtainTypedArray(resId);
+                return typedArray.length();
+            }
+
+            @Override
+            public long getColor(int index) {
+                return typedArray.getColor(index, 0) & 0xFFFFFFFFL;
+            }
+
+            @Override
+            public void close() {
+                if (typedArray != null) {
+                    typedArray.recycle();
+                }
+            }
+        });
+        return paletteLoader;
+    }
+
+    /**
+     * Starts parsing a list of color strings (hex values with alpha first like Color.parseColor(),
+     * rgb(), hsl() or color names, see ColorCodec.parseAndroid()). The list is copied before returning. Strings which are not colors are skipped,
+     * and reported as an IllegalArgumentException in onPaletteLoaded() once the rest is loaded.
+     *
+     * @param colorsHexList (List of Strings)
+     * @return loader
+     */
+    public static PaletteLoader fromHexColors(List<String> colorsHexList) {
+        final String[] hexColors = colorsHexList.toArray(new String[0]);
+        PaletteLoader paletteLoader = new PaletteLoader();
+        paletteLoader.start(new Source() {
+            @Override
+            public int open() {
+                return hexColors.length;
+            }
+
+            @Override
+            public long getColor(int index) {
+                return ColorCodec.parseAndroid(hexColors[index]);
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return paletteLoader;
+    }
+
+    private void start(final Source source) {
+        ColorPickerExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                Exception failure = null;
+                int invalidCount = 0;
+                int firstInvalid = -1;
+                ColorPickerTracing.beginSection("PaletteLoader#parseColors");
+                try {
+                    int total = source.open();
+                    postSize(total);
+                    for (int offset = 0; offset < total && !cancelled; offset += BATCH_SIZE) {
+                        int[] batch = new int[Math.min(BATCH_SIZE, total - offset)];
+                        int loaded = 0;
+                        try {
+                            for (int i = 0; i < batch.length; i++) {
+                                long color = source.getColor(offset + i);
+                                if (color == ColorCodec.INVALID) {
+                                    invalidCount++;
+                                    firstInvalid = firstInvalid == -1 ? offset + i : firstInvalid;
+                                } else {
+                                    batch[loaded++] = (int) color;
+                                }
+                            }
+                        } finally {
+                            if (loaded > 0) {
+                                postColors(loaded == batch.length ? batch : Arrays.copyOf(batch, loaded));
+                            }
+                        }
+                    }
+                    if (invalidCount > 0) {
+                        failure = new IllegalArgumentException(invalidCount + " invalid color(s), first at index " + firstInvalid);
+                    }
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    source.close();
+                    ColorPickerTracing.endSection();
+                }
+                postFinished(failure);
+            }
+        });
+    }
+
+    private void postSize(final int total) {
+        ColorPickerExecutors.mainThread().post(new Runnable() {
+            @Override
+            public void run() {
+                if (cancelled) {
+                    return;
+                }
+                expectedSize = total;
+                for (OnPaletteLoadListener listener : listenersSnapshot()) {
+                    listener.onPaletteSizeKnown(total);
+                }
+            }
+        });
+    }
+
+    private void postColors(final int[] batch) {
+        ColorPickerExecutors.mainThread().post(new Runnable() {
+            @Override
+            public void run() {
+                if (cancelled) {
+                    return;
+                }
+                int offset = size;
+                if (size + batch.length > colors.length) {
+                    colors = Arrays.copyOf(colors, Math.max(size + batch.length, expectedSize));
+                }
+                System.arraycopy(batch, 0, colors, size, batch.length);
+                size += batch.length;
+                for (OnPaletteLoadListener listener : listenersSnapshot()) {
+                    listener.onColorsLoaded(colors, offset, batch.length);
+                }
+            }
+        });
+    }
+
+    private void postFinished(final Exception failure) {
+        ColorPickerExecutors.mainThread().post(new Runnable() {
+            @Override
+            public void run() {
+                if (cancelled) {
+                    return;
+                }
+                finished = true;
+                error = failure;
+                for (OnPaletteLoadListener listener : listenersSnapshot()) {
+                    listener.onPaletteLoaded(failure);
+                }
+                listeners.clear();
+            }
+        });
+    }
+
+    private OnPaletteLoadListener[] listenersSnapshot() {
+        return listeners.toArray(new OnPaletteLoadListener[0]);
+    }
+
+    /**
+     * Adds the listener. It first receives (synchronously) the size and the colors loaded so far,
+     * and the end of loading if it is over. Listeners are removed once the loading is over.
+     *
+     * @param listener (listener)
+     */
+    public void addListener(OnPaletteLoadListener listener) {
+        if (expectedSize != -1) {
+            listener.onPaletteSizeKnown(expectedSize);
+        }
+        if (size > 0) {
+            listener.onColorsLoaded(colors, 0, size);
+        }
+        if (finished) {
+            listener.onPaletteLoaded(error);
+        } else if (!cancelled) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(OnPaletteLoadListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Stops loading. Colors which have not been delivered yet are dropped and the listeners are
+     * not called again.
+     */
+    public void cancel() {
+        cancelled = true;
+        listeners.clear();
+    }
+
+    /**
+     * @return number of colors to load (or -1 if it is not known yet)
+     */
+    public int getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * @return number of colors delivered so far
+     */
+    public int getLoadedCount() {
+        return size;
+    }
+
+    /**
+     * @return copy of the colors delivered so far
+     */
+    public int[] getColors() {
+        return Arrays.copyOf(colors, size);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
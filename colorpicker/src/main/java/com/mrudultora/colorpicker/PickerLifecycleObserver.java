@@ -0,0 +1,102 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+/**
+ * Binds a picker to a LifecycleOwner: the picker is dismissed when the owner stops and releases
+ * its views, adapter and caches when the owner is destroyed (they are created again by the
+ * next show()). The Context is released too if it is destroyed along with the owner, after
+ * which the picker can not be shown anymore.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+abstract class PickerLifecycleObserver implements LifecycleObserver {
+    private final Context context;
+    private final LifecycleOwner owner;
+
+    PickerLifecycleObserver(Context context, LifecycleOwner owner) {
+        this.context = context;
+        this.owner = owner;
+        if (owner.getLifecycle().getCurrentState() != Lifecycle.State.DESTROYED) {
+            owner.getLifecycle().addObserver(this);
+        }
+    }
+
+    /**
+     * Called when the owner stops. The picker should dismiss its dialog.
+     */
+    abstract void onOwnerStopped();
+
+    /**
+     * Called when the owner is destroyed. The picker should release its views, adapter and caches.
+     *
+     * @param releaseContext (whether the context is destroyed too and must be released)
+     */
+    abstract void onOwnerDestroyed(boolean releaseContext);
+
+    /**
+     * Stops observing the owner.
+     */
+    void unbind() {
+        owner.getLifecycle().removeObserver(this);
+    }
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_STOP)
+    void onStop() {
+        onOwnerStopped();
+    }
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
+    void onDestroy() {
+        unbind();
+        onOwnerDestroyed(isContextDestroyed());
+    }
+
+    /**
+     * The context is destroyed if it is the owner itself (an activity), or if it is an activity
+     * going away along with the owner (for example, a fragment). A context wrapping the activity
+     * (like a ContextThemeWrapper) is unwrapped first.
+     */
+    private boolean isContextDestroyed() {
+        Context baseContext = context;
+        while (baseContext != owner && !(baseContext instanceof Activity) && baseContext instanceof ContextWrapper) {
+            Context wrapped = ((ContextWrapper) baseContext).getBaseContext();
+            if (wrapped == null || wrapped == baseContext) {
+                break;
+            }
+            baseContext = wrapped;
+        }
+        if (baseContext == owner) {
+            return true;
+        }
+        if (baseContext instanceof Activity) {
+            Activity activity = (Activity) baseContext;
+            return activity.isFinishing() || activity.isChangingConfigurations();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,335 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker;
+
+import android.graphics.Bitmap;
+
+import com.mrudultora.colorpicker.util.ColorConverter;
+
+/**
+ * A bounded LRU cache of pre-rendered saturation/value planes (tiles) used by ColorPickerView.
+ * Tiles are keyed by quantized hue (hue is divided into hueBuckets buckets) and by tile size.
+ * While scrubbing the hue, ColorPickerView only has to draw a cached tile instead of
+ * rasterizing the whole plane again.
+ * <p>
+ * The plane is a smooth gradient, so tiles are rendered at most maxTileSize pixels wide/high and
+ * scaled (with filtering) to the size of view. Tiles are rendered for the size last requested.
+ * A tile of another size is dropped when its bucket is requested again, or as soon as it is
+ * rendered, without evicting the other tiles. So pickers of different sizes can share a cache.
+ * Tiles are evicted in least recently used order once maxBytes is exceeded.
+ * <p>
+ * Tiles are never rendered on the calling thread. A missing tile is rendered on a background
+ * thread (of its own, so rendering does not delay the other background work of the library), and
+ * prewarm() renders the tiles around a hue ahead of time. This class is thread safe.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public class SaturationValueTileCache {
+    public static final int DEFAULT_HUE_BUCKETS = 360;
+    public static final int DEFAULT_MAX_TILE_SIZE = 64;           // in pixels
+    public static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;  // 4 MB (256 tiles of 64 x 64 pixels)
+    public static final int DEFAULT_PREWARM_TILES = 64;           // buckets rendered by prewarm().
+
+    private static final int NONE = -1;
+
+    private final int hueBuckets;
+    private final int maxTileSize;
+    private final int maxBytes;
+    private final Bitmap[] tiles;
+    private final boolean[] rendering;     // buckets queued for rendering by getTile().
+    // Doubly linked list of cached buckets in access order. Head is the most recently used.
+    private final int[] previous;
+    private final int[] next;
+    private int head = NONE;
+    private int tail = NONE;
+    private int tileWidth;                 // size last requested.
+    private int tileHeight;
+    private long usedBytes;
+    private int prewarmGeneration;
+
+    public SaturationValueTileCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_HUE_BUCKETS, DEFAULT_MAX_TILE_SIZE);
+    }
+
+    public SaturationValueTileCache(int maxBytes) {
+        this(maxBytes, DEFAULT_HUE_BUCKETS, DEFAULT_MAX_TILE_SIZE);
+    }
+
+    /**
+     * @param maxBytes    (memory budget of all the tiles in bytes)
+     * @param hueBuckets  (number of quantized hues, for example 360 or 720)
+     * @param maxTileSize (maximum width and height of a tile in pixels)
+     */
+    public SaturationValueTileCache(int maxBytes, int hueBuckets, int maxTileSize) {
+        if (maxBytes <= 0 || hueBuckets <= 0 || maxTileSize <= 0) {
+            throw new IllegalArgumentException("maxBytes, hueBuckets and maxTileSize must be greater than 0.");
+        }
+        this.maxBytes = maxBytes;
+        this.hueBuckets = hueBuckets;
+        this.maxTileSize = maxTileSize;
+        this.tiles = new Bitmap[hueBuckets];
+        this.rendering = new boolean[hueBuckets];
+        this.previous = new int[hueBuckets];
+        this.next = new int[hueBuckets];
+    }
+
+    /**
+     * Gets the tile for the hue and size of view. If the tile is not cached, then null is returned
+     * and the tile is rendered on the background thread, to be returned by a later call.
+     *
+     * @param hue        (0-360)
+     * @param viewWidth  (width of view in pixels)
+     * @param viewHeight (height of view in pixels)
+     * @return bitmap (or null if it is not cached yet, or if the size is empty)
+     */
+    public Bitmap getTile(float hue, int viewWidth, int viewHeight) {
+        return getTile(hue, viewWidth, viewHeight, null);
+    }
+
+    /**
+     * Same as getTile(hue, viewWidth, viewHeight), onRendered is posted to main thread once the
+     * missing tile is cached (ColorPickerView invalidates itself with it).
+     */
+    Bitmap getTile(float hue, int viewWidth, int viewHeight, final Runnable onRendered) {
+        if (viewWidth <= 0 || viewHeight <= 0) {
+            return null;
+        }
+        final int bucket = bucketOf(hue);
+        final int width = Math.min(viewWidth, maxTileSize);
+        final int height = Math.min(viewHeight, maxTileSize);
+        synchronized (this) {
+            tileWidth = width;
+            tileHeight = height;
+            Bitmap tile = peek(bucket, width, height);
+            if (tile != null || rendering[bucket]) {
+                return tile;
+            }
+            rendering[bucket] = true;
+        }
+        ColorPickerExecutors.tileRendering().execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (SaturationValueTileCache.this) {
+                    if (width != tileWidth || height != tileHeight) {
+                        rendering[bucket] = false;
+                        return;
+                    }
+                }
+                Bitmap tile = renderTile(hueOf(bucket), width, height);
+                synchronized (SaturationValueTileCache.this) {
+                    rendering[bucket] = false;
+                    put(bucket, tile);
+                }
+                if (onRendered != null) {
+                    ColorPickerExecutors.mainThread().post(onRendered);
+                }
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Renders the DEFAULT_PREWARM_TILES buckets nearest to startHue on a background thread,
+     * nearest first (or less, if they do not fit in the memory budget). The rest of the hues are
+     * rendered as they are requested.
+     * Calling it again (or calling clear()) cancels the previous prewarm.
+     *
+     * @param viewWidth  (width of view in pixels)
+     * @param viewHeight (height of view in pixels)
+     * @param startHue   (0-360)
+     */
+    public void prewarm(int viewWidth, int viewHeight, float startHue) {
+        if (viewWidth <= 0 || viewHeight <= 0) {
+            return;
+        }
+        final int width = Math.min(viewWidth, maxTileSize);
+        final int height = Math.min(viewHeight, maxTileSize);
+        final int startBucket = bucketOf(startHue);
+        final int count = (int) Math.min(Math.min(hueBuckets, DEFAULT_PREWARM_TILES),
+                maxBytes / ((long) width * height * 4));
+        final int generation;
+        synchronized (this) {
+            tileWidth = width;
+            tileHeight = height;
+            generation = ++prewarmGeneration;
+        }
+        ColorPickerExecutors.tileRendering().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    // Alternate around startBucket: start, start+1, start-1, start+2 ...
+                    int offset = (i + 1) / 2;
+                    int bucket = (i % 2 == 1) ? startBucket + offset : startBucket - offset;
+                    bucket = ((bucket % hueBuckets) + hueBuckets) % hueBuckets;
+                    synchronized (SaturationValueTileCache.this) {
+                        if (generation != prewarmGeneration || width != tileWidth || height != tileHeight) {
+                            return;
+                        }
+                        if (peek(bucket, width, height) != null) {
+                            continue;
+                        }
+                    }
+                    Bitmap tile = renderTile(hueOf(bucket), width, height);
+                    synchronized (SaturationValueTileCache.this) {
+                        if (generation != prewarmGeneration) {
+                            return;
+                        }
+                        put(bucket, tile);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all the tiles and cancels any prewarm in progress.
+     */
+    public synchronized void clear() {
+        prewarmGeneration++;
+        clearTiles();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getHueBuckets() {
+        return hueBuckets;
+    }
+
+    int bucketOf(float hue) {
+        int bucket = Math.round(hue * hueBuckets / 360f);
+        return ((bucket % hueBuckets) + hueBuckets) % hueBuckets;
+    }
+
+    float hueOf(int bucket) {
+        return bucket * 360f / hueBuckets;
+    }
+
+    /**
+     * Must be called while holding the lock. Moves the tile to the head of list if present.
+     * A tile of another size is dropped.
+     */
+    private Bitmap peek(int bucket, int width, int height) {
+        Bitmap tile = tiles[bucket];
+        if (tile == null) {
+            return null;
+        }
+        if (tile.getWidth() != width || tile.getHeight() != height) {
+            remove(bucket);
+            return null;
+        }
+        unlink(bucket);
+        linkFirst(bucket);
+        return tile;
+    }
+
+    /**
+     * Must be called while holding the lock. A tile which is not of the size last requested
+     * (rendered before the size of view changed) is dropped.
+     */
+    private void put(int bucket, Bitmap tile) {
+        if (tile.getWidth() != tileWidth || tile.getHeight() != tileHeight) {
+            return;
+        }
+        if (tiles[bucket] != null) {
+            if (tiles[bucket].getWidth() == tileWidth && tiles[bucket].getHeight() == tileHeight) {
+                return;
+            }
+            remove(bucket);
+        }
+        tiles[bucket] = tile;
+        usedBytes += tile.getByteCount();
+        linkFirst(bucket);
+        while (usedBytes > maxBytes && tail != NONE && tail != bucket) {
+            remove(tail);
+        }
+    }
+
+    private void remove(int bucket) {
+        unlink(bucket);
+        usedBytes -= tiles[bucket].getByteCount();
+        tiles[bucket] = null;
+    }
+
+    private void clearTiles() {
+        for (int i = 0; i < hueBuckets; i++) {
+            tiles[i] = null;
+        }
+        head = NONE;
+        tail = NONE;
+        usedBytes = 0;
+    }
+
+    private void unlink(int bucket) {
+        int p = previous[bucket];
+        int n = next[bucket];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NONE) {
+            previous[n] = p;
+        } else {
+            tail = p;
+        }
+    }
+
+    private void linkFirst(int bucket) {
+        previous[bucket] = NONE;
+        next[bucket] = head;
+        if (head != NONE) {
+            previous[head] = bucket;
+        }
+        head = bucket;
+        if (tail == NONE) {
+            tail = bucket;
+        }
+    }
+
+    /**
+     * Renders the saturation (x axis, 0-1) and value (y axis, 1-0) plane for the hue.
+     * Same as white to hue horizontal gradient multiplied by white to black vertical gradient.
+     */
+    static Bitmap renderTile(float hue, int width, int height) {
+        int hueColor = ColorConverter.hsvToColor(hue, 1f, 1f);
+        int red = ColorConverter.red(hueColor);
+        int green = ColorConverter.green(hueColor);
+        int blue = ColorConverter.blue(hueColor);
+        int[] pixels = new int[width * height];
+        float xStep = width > 1 ? 1f / (width - 1) : 0f;
+        float yStep = height > 1 ? 1f / (height - 1) : 0f;
+        for (int y = 0; y < height; y++) {
+            float value = 1f - y * yStep;
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                float saturation = x * xStep;
+                int r = Math.round(value * (255f - saturation * (255 - red)));
+                int g = Math.round(value * (255f - saturation * (255 - green)));
+                int b = Math.round(value * (255f - saturation * (255 - blue)));
+                pixels[row + x] = ColorConverter.argb(255, r, g, b);
+            }
+        }
+        return Bitmap.createBitmap(pixels, width, height, Bitmap.Config.ARGB_8888);
+    }
+}
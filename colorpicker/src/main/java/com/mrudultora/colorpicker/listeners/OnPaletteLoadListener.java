@@ -0,0 +1,44 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.listeners;
+
+/**
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ * Listener to receive the colors of a PaletteLoader as they are loaded. All the methods are
+ * called on the main thread. A listener added late first receives everything loaded so far.
+ */
+public interface OnPaletteLoadListener {
+    /**
+     * Called once the number of colors is known, before any color is delivered.
+     */
+    void onPaletteSizeKnown(int size);
+
+    /**
+     * Called with every batch of loaded colors. The batch is colors[offset, offset + count),
+     * where offset is also the index of its first color in the whole palette.
+     * The array must not be modified or kept.
+     */
+    void onColorsLoaded(int[] colors, int offset, int count);
+
+    /**
+     * Called once the loading is over. Error is null if all the colors were loaded. Otherwise it
+     * describes the entries which were skipped (invalid color strings), or the failure which
+     * stopped the loading (the colors before it have been delivered).
+     */
+    void onPaletteLoaded(Exception error);
+}
@@ -0,0 +1,47 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.listeners;
+
+/**
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ * Listener to receive render and touch metrics of color pickers. All the durations are in
+ * nanoseconds and all the methods are called on the main thread.
+ */
+public interface OnPickerMetricsListener {
+    /**
+     * Called after every draw of ColorPickerView.
+     */
+    void onViewDrawn(long drawDurationNanos);
+
+    /**
+     * Called after a touch has been applied to the color, cursors and preview. Latency is
+     * measured from MotionEvent.getEventTime() (so it has millisecond resolution).
+     */
+    void onTouchCommitted(long latencyNanos);
+
+    /**
+     * Called after every bind of an item in the color palette.
+     */
+    void onItemBound(int position, long bindDurationNanos);
+
+    /**
+     * Called at the end of show(). Inflation is the time main thread spent inflating the dialog
+     * layout, zero if it was inflated ahead of time or by an earlier show().
+     */
+    void onDialogShown(long inflationNanos, long showDurationNanos);
+}
@@ -0,0 +1,32 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.listeners;
+
+import com.mrudultora.colorpicker.ColorPickerPopUp;
+
+/**
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ * Listener to know when the layout of a ColorPickerPopUp, inflated by inflateAsync(), is ready.
+ */
+public interface OnPopUpInflatedListener {
+    /**
+     * Called on the main thread once the layout is inflated. The pop up can now be shown
+     * without inflating anything.
+     */
+    void onPopUpInflated(ColorPickerPopUp colorPickerPopUp);
+}
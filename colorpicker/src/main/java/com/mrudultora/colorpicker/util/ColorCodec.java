@@ -0,0 +1,441 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.util;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Parses and formats color strings without throwing and without allocating. It does not depend
+ * on android.graphics.Color, so it can be used (and tested) on plain JVM.
+ * <p>
+ * Supported formats (case insensitive, surrounding whitespace ignored):
+ * <ul>
+ * <li>Hex: #RGB, #RGBA, #RRGGBB and #RRGGBBAA. Alpha comes last, like in CSS. The parseAndroid()
+ * methods read #ARGB and #AARRGGBB instead, with alpha first like Color.parseColor().</li>
+ * <li>rgb(r, g, b) and rgba(r, g, b, a), with channels as 0-255 or percentages.</li>
+ * <li>hsl(h, s%, l%) and hsla(h, s%, l%, a), with hue in degrees (optionally "deg").</li>
+ * <li>Space separated forms like rgb(255 0 0 / 50%) and hsl(120deg 100% 50%).</li>
+ * <li>The color names understood by Color.parseColor() (and "transparent").</li>
+ * </ul>
+ * Alpha is a number from 0 to 1 or a percentage. Parse methods return the color as an unsigned
+ * long, or INVALID, so callers can tell every color (including 0) from an error.
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class ColorCodec {
+    /**
+     * Returned by the parse methods when the text is not a color.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Maximum number of chars written by formatHex().
+     */
+    public static final int MAX_HEX_LENGTH = 9;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // Same names and values as Color.parseColor().
+    private static final String[] NAMES = {
+            "black", "darkgray", "gray", "lightgray", "white", "red", "green", "blue", "yellow",
+            "cyan", "magenta", "aqua", "fuchsia", "darkgrey", "grey", "lightgrey", "lime",
+            "maroon", "navy", "olive", "purple", "silver", "teal", "transparent"
+    };
+    private static final int[] NAMED_COLORS = {
+            0xFF000000, 0xFF444444, 0xFF888888, 0xFFCCCCCC, 0xFFFFFFFF, 0xFFFF0000, 0xFF00FF00,
+            0xFF0000FF, 0xFFFFFF00, 0xFF00FFFF, 0xFFFF00FF, 0xFF00FFFF, 0xFFFF00FF, 0xFF444444,
+            0xFF888888, 0xFFCCCCCC, 0xFF00FF00, 0xFF800000, 0xFF000080, 0xFF808000, 0xFF800080,
+            0xFFC0C0C0, 0xFF008080, 0x00000000
+    };
+
+    private ColorCodec() {
+    }
+
+    /**
+     * Parses the whole text (hex with alpha last, like CSS).
+     *
+     * @param text (color string)
+     * @return color as unsigned long (color & 0xFFFFFFFFL), or INVALID
+     */
+    public static long parse(CharSequence text) {
+        return text == null ? INVALID : parse(text, 0, text.length(), false);
+    }
+
+    /**
+     * Parses text[start, end), so a color can be read from a larger text without substring.
+     *
+     * @param text  (text containing the color)
+     * @param start (index of first char)
+     * @param end   (index after last char)
+     * @return color as unsigned long (color & 0xFFFFFFFFL), or INVALID
+     */
+    public static long parse(CharSequence text, int start, int end) {
+        return parse(text, start, end, false);
+    }
+
+    /**
+     * Parses the whole text, with hex read as #ARGB or #AARRGGBB (alpha first, like
+     * Color.parseColor() and color resources).
+     *
+     * @param text (color string)
+     * @return color as unsigned long (color & 0xFFFFFFFFL), or INVALID
+     */
+    public static long parseAndroid(CharSequence text) {
+        return text == null ? INVALID : parse(text, 0, text.length(), true);
+    }
+
+    /**
+     * Parses text[start, end), with hex read as #ARGB or #AARRGGBB (alpha first).
+     *
+     * @param text  (text containing the color)
+     * @param start (index of first char)
+     * @param end   (index after last char)
+     * @return color as unsigned long (color & 0xFFFFFFFFL), or INVALID
+     */
+    public static long parseAndroid(CharSequence text, int start, int end) {
+        return parse(text, start, end, true);
+    }
+
+    private static long parse(CharSequence text, int start, int end, boolean alphaFirst) {
+        if (text == null || start < 0 || end > text.length() || start > end) {
+            return INVALID;
+        }
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return INVALID;
+        }
+        if (text.charAt(start) == '#') {
+            return parseHex(text, start + 1, end, alphaFirst);
+        }
+        if (text.charAt(end - 1) == ')') {
+            return parseFunction(text, start, end - 1);
+        }
+        return parseName(text, start, end);
+    }
+
+    /**
+     * Parses the whole text (hex with alpha last, like CSS).
+     *
+     * @param text         (color string)
+     * @param defaultColor (returned if text is not a color)
+     * @return color
+     */
+    public static int parseOrDefault(CharSequence text, int defaultColor) {
+        long color = parse(text);
+        return color == INVALID ? defaultColor : (int) color;
+    }
+
+    /**
+     * Parses every text of list into colors (hex with alpha last, like CSS), starting at
+     * colors[offset]. An invalid text does not
+     * stop the parsing: its color is set to 0 and its index (in texts) is set in invalid.
+     *
+     * @param texts   (color strings)
+     * @param colors  (parsed colors, must have room for texts.size() colors from offset)
+     * @param offset  (index in colors of the first color)
+     * @param invalid (receives the indices of invalid texts, can be null)
+     * @return number of invalid texts
+     */
+    public static int parseAll(List<? extends CharSequence> texts, int[] colors, int offset, BitSet invalid) {
+        int invalidCount = 0;
+        int size = texts.size();
+        for (int i = 0; i < size; i++) {
+            long color = parse(texts.get(i));
+            if (color == INVALID) {
+                colors[offset + i] = 0;
+                invalidCount++;
+                if (invalid != null) {
+                    invalid.set(i);
+                }
+            } else {
+                colors[offset + i] = (int) color;
+            }
+        }
+        return invalidCount;
+    }
+
+    /**
+     * Writes the color as #RRGGBB, or #AARRGGBB with alpha (alpha first, read by parseAndroid()),
+     * in upper case.
+     *
+     * @param color     (color int value)
+     * @param withAlpha (true to write the alpha)
+     * @param out       (buffer with room for MAX_HEX_LENGTH chars from offset)
+     * @param offset    (index of first char)
+     * @return number of chars written
+     */
+    public static int formatHex(int color, boolean withAlpha, char[] out, int offset) {
+        int digits = withAlpha ? 8 : 6;
+        out[offset] = '#';
+        for (int i = digits; i > 0; i--) {
+            out[offset + i] = HEX_DIGITS[color & 0xF];
+            color >>>= 4;
+        }
+        return digits + 1;
+    }
+
+    /**
+     * Formats the color as #RRGGBB, or #AARRGGBB with alpha. Allocates the string; use
+     * formatHex(int, boolean, char[], int) to reuse a buffer.
+     *
+     * @param color     (color int value)
+     * @param withAlpha (true to include the alpha)
+     * @return hex string
+     */
+    public static String toHex(int color, boolean withAlpha) {
+        char[] out = new char[MAX_HEX_LENGTH];
+        return new String(out, 0, formatHex(color, withAlpha, out, 0));
+    }
+
+    private static long parseHex(CharSequence text, int start, int end, boolean alphaFirst) {
+        int length = end - start;
+        if (length != 3 && length != 4 && length != 6 && length != 8) {
+            return INVALID;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = hexDigit(text.charAt(i));
+            if (digit < 0) {
+                return INVALID;
+            }
+            value = (value << 4) | digit;
+        }
+        switch (length) {
+            case 3:
+                return unsigned(0xFF000000 | expandNibbles(value));
+            case 4:
+                return unsigned(alphaFirst ? expandNibbles(value) : alphaLastToArgb(expandNibbles(value)));
+            case 6:
+                return unsigned(0xFF000000 | value);
+            default:
+                return unsigned(alphaFirst ? value : alphaLastToArgb(value));
+        }
+    }
+
+    /**
+     * Moves the alpha of 0xRRGGBBAA to the front (0xAARRGGBB).
+     */
+    private static int alphaLastToArgb(int rgba) {
+        return (rgba >>> 8) | (rgba << 24);
+    }
+
+    /**
+     * Doubles every nibble of value (0xWXYZ to 0xWWXXYYZZ).
+     */
+    private static int expandNibbles(int value) {
+        int result = 0;
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            int nibble = (value >>> shift) & 0xF;
+            result = (result << 8) | (nibble << 4) | nibble;
+        }
+        return result;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses rgb(), rgba(), hsl() and hsla(). End is the index of ')'.
+     */
+    private static long parseFunction(CharSequence text, int start, int end) {
+        int open = start;
+        while (open < end && text.charAt(open) != '(') {
+            open++;
+        }
+        boolean hsl;
+        if (regionMatches(text, start, open, "rgb") || regionMatches(text, start, open, "rgba")) {
+            hsl = false;
+        } else if (regionMatches(text, start, open, "hsl") || regionMatches(text, start, open, "hsla")) {
+            hsl = true;
+        } else {
+            return INVALID;
+        }
+        float c0 = 0f;
+        float c1 = 0f;
+        float c2 = 0f;
+        float alpha = 1f;
+        int count = 0;
+        int position = open + 1;
+        while (true) {
+            position = skipWhitespace(text, position, end);
+            if (position == end) {
+                break;
+            }
+            if (count > 0) {
+                char separator = text.charAt(position);
+                if (separator == ',' || separator == '/') {
+                    position = skipWhitespace(text, position + 1, end);
+                }
+            }
+            long scanned = scanNumber(text, position, end);
+            if (scanned == INVALID || count == 4) {
+                return INVALID;
+            }
+            int numberEnd = (int) (scanned >>> 32);
+            float number = Float.intBitsToFloat((int) scanned);
+            char unit = text.charAt(numberEnd - 1);
+            boolean percent = unit == '%';
+            boolean degrees = unit == 'g' || unit == 'G';
+            if (degrees && (!hsl || count != 0)) {
+                return INVALID;
+            }
+            switch (count) {
+                case 0:
+                    c0 = hsl ? number : channel(number, percent);
+                    break;
+                case 1:
+                    c1 = hsl ? number / 100f : channel(number, percent);
+                    break;
+                case 2:
+                    c2 = hsl ? number / 100f : channel(number, percent);
+                    break;
+                default:
+                    alpha = percent ? number / 100f : number;
+                    break;
+            }
+            count++;
+            position = numberEnd;
+        }
+        if (count < 3) {
+            return INVALID;
+        }
+        int alphaByte = Math.round(clamp(alpha, 0f, 1f) * 255f);
+        if (hsl) {
+            float hue = c0 % 360f;
+            if (hue < 0f) {
+                hue += 360f;
+            }
+            return unsigned(ColorConverter.hslToColor(alphaByte, hue, c1, c2));
+        }
+        return unsigned(ColorConverter.argb(alphaByte, Math.round(c0), Math.round(c1), Math.round(c2)));
+    }
+
+    private static float channel(float number, boolean percent) {
+        return clamp(percent ? number * 2.55f : number, 0f, 255f);
+    }
+
+    /**
+     * Scans a decimal number (with optional sign, fraction and "%" or "deg" unit) at start.
+     *
+     * @return end of number (high 32 bits) and its float bits (low 32 bits), or INVALID
+     */
+    private static long scanNumber(CharSequence text, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+            negative = text.charAt(position) == '-';
+            position++;
+        }
+        float value = 0f;
+        int digits = 0;
+        while (position < end && isDigit(text.charAt(position))) {
+            value = value * 10f + (text.charAt(position++) - '0');
+            digits++;
+        }
+        if (position < end && text.charAt(position) == '.') {
+            position++;
+            float scale = 0.1f;
+            while (position < end && isDigit(text.charAt(position))) {
+                value += (text.charAt(position++) - '0') * scale;
+                scale *= 0.1f;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        if (position < end && text.charAt(position) == '%') {
+            position++;
+        } else if (regionMatches(text, position, Math.min(position + 3, end), "deg")) {
+            position += 3;
+        }
+        if (position < end && !isSeparator(text.charAt(position))) {
+            return INVALID;
+        }
+        float number = negative ? -value : value;
+        return ((long) position << 32) | (Float.floatToRawIntBits(number) & 0xFFFFFFFFL);
+    }
+
+    private static long parseName(CharSequence text, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].length() == length && regionMatches(text, start, end, NAMES[i])) {
+                return unsigned(NAMED_COLORS[i]);
+            }
+        }
+        return INVALID;
+    }
+
+    /**
+     * Compares text[start, end) with lowercase name, ignoring case.
+     */
+    private static boolean regionMatches(CharSequence text, int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = text.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(CharSequence text, int position, int end) {
+        while (position < end && text.charAt(position) <= ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c <= ' ' || c == ',' || c == '/';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return value < min ? min : (value > max ? max : value);
+    }
+
+    private static long unsigned(int color) {
+        return color & 0xFFFFFFFFL;
+    }
+}
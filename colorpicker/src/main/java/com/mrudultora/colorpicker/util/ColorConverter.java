@@ -0,0 +1,340 @@
+/*
+Copyright 2021 Mrudul Tora <mrudultora@gmail.com>
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   https://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+
+package com.mrudultora.colorpicker.util;
+
+/**
+ * Converts packed int (ARGB) colors to and from HSV and HSL using primitives only.
+ * It does not depend on android.graphics.Color, so it can be used (and tested) on plain JVM.
+ * <p>
+ * hsvToColor() and colorToHsv() give the same results as Color.HSVToColor() and
+ * Color.colorToHSV() (both follow the Skia implementation), without crossing JNI.
+ * Ranges: hue (0-360), saturation (0-1), value (0-1), lightness (0-1).
+ *
+ * @author Mrudul Tora (mrudultora@gmail.com)
+ * @since 17 Oct, 2026
+ */
+public final class ColorConverter {
+    /**
+     * Number of steps in the table of pure hues. Between two primary/secondary colors a channel
+     * changes by 255 and 256 steps per 60 degrees makes every step at most 1.
+     */
+    private static final int HUE_STEPS = 6 * 256;
+    private static final int[] HUE_COLORS = new int[HUE_STEPS];
+    private static final float[] RECIPROCAL = new float[256];
+
+    static {
+        for (int i = 0; i < HUE_STEPS; i++) {
+            HUE_COLORS[i] = hsvToColor(i * 360f / HUE_STEPS, 1f, 1f);
+        }
+        for (int i = 1; i < 256; i++) {
+            RECIPROCAL[i] = 1f / i;
+        }
+    }
+
+    private ColorConverter() {
+    }
+
+    /**
+     * Converts HSV to an opaque color.
+     *
+     * @param hue        (0-360)
+     * @param saturation (0-1)
+     * @param value      (0-1)
+     * @return color (int)
+     */
+    public static int hsvToColor(float hue, float saturation, float value) {
+        return hsvToColor(255, hue, saturation, value);
+    }
+
+    /**
+     * Converts HSV to a color with the given alpha.
+     *
+     * @param alpha      (0-255)
+     * @param hue        (0-360)
+     * @param saturation (0-1)
+     * @param value      (0-1)
+     * @return color (int)
+     */
+    public static int hsvToColor(int alpha, float hue, float saturation, float value) {
+        float s = clamp(saturation);
+        float v = clamp(value);
+        int vByte = round(v * 255f);
+        if (s <= 1f / 4096f) {
+            // Shade of gray.
+            return argb(alpha, vByte, vByte, vByte);
+        }
+        float hx = (hue < 0f || hue >= 360f) ? 0f : hue / 60f;
+        int w = (int) hx;
+        float f = hx - w;
+        int p = round((1f - s) * v * 255f);
+        int q = round((1f - (s * f)) * v * 255f);
+        int t = round((1f - (s * (1f - f))) * v * 255f);
+        switch (w) {
+            case 0:
+                return argb(alpha, vByte, t, p);
+            case 1:
+                return argb(alpha, q, vByte, p);
+            case 2:
+                return argb(alpha, p, vByte, t);
+            case 3:
+                return argb(alpha, p, q, vByte);
+            case 4:
+                return argb(alpha, t, p, vByte);
+            default:
+                return argb(alpha, vByte, p, q);
+        }
+    }
+
+    /**
+     * Fast path for hsvToColor(hue, 1f, 1f) using a lookup table.
+     * Result differs by at most 1 in each channel from hsvToColor(hue, 1f, 1f).
+     *
+     * @param hue (0-360)
+     * @return opaque color (int)
+     */
+    public static int hueToColor(float hue) {
+        int index = round(hue * (HUE_STEPS / 360f));
+        if (index < 0 || index >= HUE_STEPS) {
+            index = ((index % HUE_STEPS) + HUE_STEPS) % HUE_STEPS;
+        }
+        return HUE_COLORS[index];
+    }
+
+    /**
+     * Converts the color to HSV and stores it in hsv. Alpha is ignored.
+     *
+     * @param color (int)
+     * @param hsv   (array of size 3: hue, saturation, value)
+     */
+    public static void colorToHsv(int color, float[] hsv) {
+        hsv[0] = hue(color);
+        hsv[1] = saturation(color);
+        hsv[2] = value(color);
+    }
+
+    /**
+     * Gets the hue of color (same for HSV and HSL).
+     *
+     * @param color (int)
+     * @return hue (0-360)
+     */
+    public static float hue(int color) {
+        int r = red(color);
+        int g = green(color);
+        int b = blue(color);
+        int max = Math.max(r, Math.max(g, b));
+        int delta = max - Math.min(r, Math.min(g, b));
+        if (delta == 0) {
+            return 0f;
+        }
+        float h;
+        if (r == max) {
+            h = (g - b) * RECIPROCAL[delta];
+        } else if (g == max) {
+            h = 2f + (b - r) * RECIPROCAL[delta];
+        } else {
+            h = 4f + (r - g) * RECIPROCAL[delta];
+        }
+        h *= 60f;
+        if (h < 0f) {
+            h += 360f;
+        }
+        return h;
+    }
+
+    /**
+     * Gets the HSV saturation of color.
+     *
+     * @param color (int)
+     * @return saturation (0-1)
+     */
+    public static float saturation(int color) {
+        int r = red(color);
+        int g = green(color);
+        int b = blue(color);
+        int max = Math.max(r, Math.max(g, b));
+        int delta = max - Math.min(r, Math.min(g, b));
+        if (delta == 0) {
+            return 0f;
+        }
+        return delta * RECIPROCAL[max];
+    }
+
+    /**
+     * Gets the HSV value of color.
+     *
+     * @param color (int)
+     * @return value (0-1)
+     */
+    public static float value(int color) {
+        return Math.max(red(color), Math.max(green(color), blue(color))) / 255f;
+    }
+
+    /**
+     * Converts HSL to an opaque color.
+     *
+     * @param hue        (0-360)
+     * @param saturation (0-1)
+     * @param lightness  (0-1)
+     * @return color (int)
+     */
+    public static int hslToColor(float hue, float saturation, float lightness) {
+        return hslToColor(255, hue, saturation, lightness);
+    }
+
+    /**
+     * Converts HSL to a color with the given alpha.
+     *
+     * @param alpha      (0-255)
+     * @param hue        (0-360)
+     * @param saturation (0-1)
+     * @param lightness  (0-1)
+     * @return color (int)
+     */
+    public static int hslToColor(int alpha, float hue, float saturation, float lightness) {
+        float s = clamp(saturation);
+        float l = clamp(lightness);
+        float c = (1f - Math.abs(2f * l - 1f)) * s;
+        float m = l - c / 2f;
+        float hx = (hue < 0f || hue >= 360f) ? 0f : hue / 60f;
+        int w = (int) hx;
+        float x = c * (1f - Math.abs(hx % 2f - 1f));
+        float r;
+        float g;
+        float b;
+        switch (w) {
+            case 0:
+                r = c;
+                g = x;
+                b = 0f;
+                break;
+            case 1:
+                r = x;
+                g = c;
+                b = 0f;
+                break;
+            case 2:
+                r = 0f;
+                g = c;
+                b = x;
+                break;
+            case 3:
+                r = 0f;
+                g = x;
+                b = c;
+                break;
+            case 4:
+                r = x;
+                g = 0f;
+                b = c;
+                break;
+            default:
+                r = c;
+                g = 0f;
+                b = x;
+                break;
+        }
+        return argb(alpha, round((r + m) * 255f), round((g + m) * 255f), round((b + m) * 255f));
+    }
+
+    /**
+     * Converts the color to HSL and stores it in hsl. Alpha is ignored.
+     *
+     * @param color (int)
+     * @param hsl   (array of size 3: hue, saturation, lightness)
+     */
+    public static void colorToHsl(int color, float[] hsl) {
+        hsl[0] = hue(color);
+        hsl[1] = hslSaturation(color);
+        hsl[2] = lightness(color);
+    }
+
+    /**
+     * Gets the HSL saturation of color.
+     *
+     * @param color (int)
+     * @return saturation (0-1)
+     */
+    public static float hslSaturation(int color) {
+        int r = red(color);
+        int g = green(color);
+        int b = blue(color);
+        int max = Math.max(r, Math.max(g, b));
+        int min = Math.min(r, Math.min(g, b));
+        int delta = max - min;
+        if (delta == 0) {
+            return 0f;
+        }
+        // delta / (1 - |2L - 1|), where L = (max + min) / 510.
+        int sum = max + min;
+        return (float) delta / (sum <= 255 ? sum : 510 - sum);
+    }
+
+    /**
+     * Gets the HSL lightness of color.
+     *
+     * @param color (int)
+     * @return lightness (0-1)
+     */
+    public static float lightness(int color) {
+        int r = red(color);
+        int g = green(color);
+        int b = blue(color);
+        return (Math.max(r, Math.max(g, b)) + Math.min(r, Math.min(g, b))) / 510f;
+    }
+
+    /**
+     * Replaces alpha of the color.
+     * Any present alpha is removed by doing bitwise AND with 0x00FFFFFF, then the new alpha
+     * (shifted to the initial 8 bits) is combined using bitwise OR.
+     *
+     * @param color (int)
+     * @param alpha (0-255)
+     * @return color (int)
+     */
+    public static int withAlpha(int color, int alpha) {
+        return alpha << 24 | (color & 0x00FFFFFF);
+    }
+
+    public static int alpha(int color) {
+        return color >>> 24;
+    }
+
+    public static int red(int color) {
+        return (color >> 16) & 0xFF;
+    }
+
+    public static int green(int color) {
+        return (color >> 8) & 0xFF;
+    }
+
+    public static int blue(int color) {
+        return color & 0xFF;
+    }
+
+    public static int argb(int alpha, int red, int green, int blue) {
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    private static float clamp(float value) {
+        return value < 0f ? 0f : (value > 1f ? 1f : value);
+    }
+
+    private static int round(float value) {
+        return (int) Math.floor(value + 0.5f);
+    }
+}
@@ -0,0 +1,196 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.listeners.OnColorItemClickListener;
+import com.mrudultora.colorpicker.util.ColorItemShape;
+import com.mrudultora.colorpicker.util.ColorUtil;
+import com.mrudultora.colorpicker.util.IntIntMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budgets of ColorAdapter.onBindViewHolder under Robolectric.
+ * A few holders are bound in turn to all the positions of a large palette, like while flinging.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorAdapterBindTest {
+    private static final int PALETTE_SIZE = 1000;
+    private static final int HOLDERS = 12;
+
+    private Activity activity;
+    private RecyclerView recyclerView;
+    private HotPathMeter meter;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        recyclerView = new RecyclerView(activity);
+        recyclerView.setLayoutManager(new GridLayoutManager(activity, 5));
+        meter = new HotPathMeter();
+    }
+
+    @Test
+    public void onBindViewHolder_defaultStyle_staysWithinBudget() {
+        ColorAdapter colorAdapter = new ColorAdapter(palette(), activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+
+        HotPathMeter.Result result = bindAll("ColorAdapter#onBindViewHolder (default)", colorAdapter);
+
+        HotPathMeter.assertWithinAllocationBudget(result, 1024L);
+    }
+
+    @Test
+    public void onBindViewHolder_customSizesAndTickColors_staysWithinBudget() {
+        ColorPalette colorPalette = palette();
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, activity, ColorItemShape.CIRCLE, NO_OP_LISTENER);
+        colorAdapter.customCardSize(40f);
+        colorAdapter.customTickSize(20f);
+        IntIntMap tickColorOverrides = new IntIntMap();
+        for (int i = 0; i < colorPalette.size(); i += 10) {
+            tickColorOverrides.put(colorPalette.getColor(i), (i % 20 == 0) ? 0xFF000000 : 0xFFFF0000);
+        }
+        colorAdapter.setTickMarkColors(tickColorOverrides);
+
+        HotPathMeter.Result result = bindAll("ColorAdapter#onBindViewHolder (custom)", colorAdapter);
+
+        HotPathMeter.assertWithinAllocationBudget(result, 1024L);
+    }
+
+    @Test
+    public void onBindViewHolder_sharesBindProfileAcrossHolders() {
+        ColorAdapter colorAdapter = new ColorAdapter(palette(), activity, ColorItemShape.CIRCLE, NO_OP_LISTENER);
+        colorAdapter.setTickMarkColor(0xFF000000);
+        ColorAdapter.ViewHolder first = colorAdapter.onCreateViewHolder(recyclerView, 0);
+        ColorAdapter.ViewHolder second = colorAdapter.onCreateViewHolder(recyclerView, 0);
+
+        colorAdapter.onBindViewHolder(first, 0);
+        colorAdapter.onBindViewHolder(second, 1);
+
+        assertSame(first.appliedProfile, second.appliedProfile);
+        assertEquals(0xFF000000, first.swatchView.getTickColor());
+        assertEquals(0xFF000000, second.swatchView.getTickColor());
+
+        colorAdapter.customCardSize(40f);
+        colorAdapter.onBindViewHolder(first, 2);
+        assertNotSame(first.appliedProfile, second.appliedProfile);
+    }
+
+    @Test
+    public void onBindViewHolder_selectionPayload_onlyUpdatesTick() {
+        final ColorAdapter colorAdapter = new ColorAdapter(palette(), activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+        final ColorAdapter.ViewHolder holder = colorAdapter.onCreateViewHolder(recyclerView, 0);
+        colorAdapter.onBindViewHolder(holder, 1);
+        final List<Object> payloads = Collections.<Object>singletonList(ColorAdapter.Change.SELECTION);
+
+        HotPathMeter.Result result = meter.measure("ColorAdapter#onBindViewHolder (selection payload)", PALETTE_SIZE,
+                new HotPathMeter.Operation() {
+                    @Override
+                    public void run(int index) {
+                        colorAdapter.onBindViewHolder(holder, 1, payloads);
+                    }
+                });
+
+        HotPathMeter.assertWithinAllocationBudget(result, 0L);
+    }
+
+    @Test
+    public void onBindViewHolder_appliesColorSelectionAndSizes() {
+        ColorPalette colorPalette = palette();
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, activity, ColorItemShape.CIRCLE, NO_OP_LISTENER);
+        colorAdapter.customCardSize(40f);
+        ColorAdapter.ViewHolder holder = colorAdapter.onCreateViewHolder(recyclerView, 0);
+
+        colorAdapter.onBindViewHolder(holder, 0);
+
+        ColorSwatchView swatchView = holder.swatchView;
+        assertEquals(colorPalette.getColor(0), swatchView.getColor());
+        assertTrue(swatchView.isChecked());
+        assertEquals(ColorItemShape.CIRCLE, swatchView.getShape());
+        assertEquals(ColorUtil.dpToPixel(activity, 40f), swatchView.getLayoutParams().width);
+
+        colorAdapter.onBindViewHolder(holder, 1);
+        assertFalse(swatchView.isChecked());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void onBindViewHolder_deprecatedHolder_bindsColorItemLayout() {
+        ColorPalette colorPalette = palette();
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+        View itemView = LayoutInflater.from(activity).inflate(R.layout.layout_color_item, recyclerView, false);
+        ColorAdapter.ViewHolder holder = new ColorAdapter.ViewHolder(itemView, NO_OP_LISTENER);
+
+        colorAdapter.onBindViewHolder(holder, 0);
+
+        assertEquals(colorPalette.getColor(0), holder.itemCardView.getCardBackgroundColor().getDefaultColor());
+        assertEquals(View.VISIBLE, holder.itemCheckImageView.getVisibility());
+        colorAdapter.onBindViewHolder(holder, 1);
+        assertEquals(View.GONE, holder.itemCheckImageView.getVisibility());
+    }
+
+    @Test
+    public void getItemId_isUniqueAndMadeOfOccurrenceAndColor() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{0xFFFF0000, 0xFFFF0000});
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+
+        assertEquals(0xFFFF0000L, colorAdapter.getItemId(0));
+        assertEquals((1L << 32) | 0xFFFF0000L, colorAdapter.getItemId(1));
+    }
+
+    @Test
+    public void getItemId_movedColor_keepsId() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{0xFF00FF00, 0xFFFF0000});
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+        long redId = colorAdapter.getItemId(1);
+
+        colorPalette.setColors(new int[]{0xFFFF0000, 0xFF00FF00});
+
+        assertEquals(redId, colorAdapter.getItemId(0));
+    }
+
+    private HotPathMeter.Result bindAll(String name, final ColorAdapter colorAdapter) {
+        final ColorAdapter.ViewHolder[] holders = new ColorAdapter.ViewHolder[HOLDERS];
+        for (int i = 0; i < HOLDERS; i++) {
+            holders[i] = colorAdapter.onCreateViewHolder(recyclerView, 0);
+        }
+        return meter.measure(name, colorAdapter.getItemCount(), new HotPathMeter.Operation() {
+            @Override
+            public void run(int index) {
+                colorAdapter.onBindViewHolder(holders[index % HOLDERS], index);
+            }
+        });
+    }
+
+    private static ColorPalette palette() {
+        ColorPalette colorPalette = new ColorPalette(PALETTE_SIZE);
+        for (int i = 0; i < PALETTE_SIZE; i++) {
+            colorPalette.add(0xFF000000 | (i * 0x9E3779 & 0x00FFFFFF));
+        }
+        colorPalette.setChecked(0, true);
+        return colorPalette;
+    }
+
+    private static final OnColorItemClickListener NO_OP_LISTENER = new OnColorItemClickListener() {
+        @Override
+        public void onColorItemClick(int position) {
+        }
+    };
+}
@@ -0,0 +1,153 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.os.Looper;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.listeners.OnColorItemClickListener;
+import com.mrudultora.colorpicker.util.ColorItemShape;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies ColorAdapter.submitColors: the diff is computed in background and only the changed
+ * items are notified.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorAdapterSubmitTest {
+    private Activity activity;
+    private List<String> events;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        events = new ArrayList<>();
+    }
+
+    @Test
+    public void submitColors_notifiesOnlyChangedItemsAndKeepsSelection() throws Exception {
+        ColorPalette colorPalette = new ColorPalette(new int[]{1, 2, 3, 4});
+        ColorAdapter colorAdapter = adapter(colorPalette);
+        colorAdapter.selectColor(3);
+        events.clear();
+        final boolean[] committed = new boolean[1];
+
+        colorAdapter.submitColors(new int[]{1, 3, 4, 5}, new Runnable() {
+            @Override
+            public void run() {
+                committed[0] = true;
+            }
+        });
+        assertArrayEquals(new int[]{1, 2, 3, 4}, colorPalette.toArray());
+        awaitDiff();
+
+        assertTrue(committed[0]);
+        assertArrayEquals(new int[]{1, 3, 4, 5}, colorPalette.toArray());
+        assertEquals(1, colorAdapter.getColorPosition());
+        assertTrue(colorPalette.isChecked(1));
+        // Item 2 removed and item 5 inserted, nothing else (DiffUtil reports positions from the end).
+        assertEquals(2, events.size());
+        assertTrue(events.contains("removed 1 1"));
+        assertTrue(events.get(0).startsWith("inserted") || events.get(1).startsWith("inserted"));
+    }
+
+    @Test
+    public void submitColors_appliesOnlyLastSubmission() throws Exception {
+        ColorPalette colorPalette = new ColorPalette(new int[]{1, 2, 3});
+        ColorAdapter colorAdapter = adapter(colorPalette);
+        colorAdapter.selectColor(2);
+
+        colorAdapter.submitColors(new int[]{1, 2}, null);
+        colorAdapter.submitColors(new int[]{3, 1}, null);
+        awaitDiff();
+
+        assertArrayEquals(new int[]{3, 1}, colorPalette.toArray());
+        assertEquals(-1, colorAdapter.getColorPosition());
+        assertFalse(colorPalette.isChecked(0));
+        assertFalse(colorPalette.isChecked(1));
+    }
+
+    @Test
+    public void submitColors_emptyPalette_isAppliedImmediately() {
+        ColorPalette colorPalette = new ColorPalette();
+        ColorAdapter colorAdapter = adapter(colorPalette);
+
+        colorAdapter.submitColors(new int[]{1, 2}, null);
+
+        assertArrayEquals(new int[]{1, 2}, colorPalette.toArray());
+        assertTrue(events.contains("inserted 0 2"));
+    }
+
+    @Test
+    public void submitColors_colorsAppendedBeforeDiff_replacesAllItems() throws Exception {
+        ColorPalette colorPalette = new ColorPalette(new int[]{1, 2, 3});
+        ColorAdapter colorAdapter = adapter(colorPalette);
+
+        colorAdapter.submitColors(new int[]{3, 4}, null);
+        colorAdapter.appendColors(new int[]{9}, 0, 1);
+        events.clear();
+        awaitDiff();
+
+        // The diff against [1, 2, 3] is stale, so the 4 items are replaced.
+        assertArrayEquals(new int[]{3, 4}, colorPalette.toArray());
+        assertEquals(2, colorAdapter.getItemCount());
+        assertEquals(2, events.size());
+        assertTrue(events.contains("removed 0 4"));
+        assertTrue(events.contains("inserted 0 2"));
+    }
+
+    private ColorAdapter adapter(ColorPalette colorPalette) {
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+        colorAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                events.add("inserted " + positionStart + " " + itemCount);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                events.add("removed " + positionStart + " " + itemCount);
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                events.add("moved " + fromPosition + " " + toPosition);
+            }
+        });
+        return colorAdapter;
+    }
+
+    /**
+     * Waits for the tasks queued on background executor and then runs the posted results.
+     */
+    private static void awaitDiff() throws Exception {
+        ColorPickerExecutors.background().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static final OnColorItemClickListener NO_OP_LISTENER = new OnColorItemClickListener() {
+        @Override
+        public void onColorItemClick(int position) {
+        }
+    };
+}
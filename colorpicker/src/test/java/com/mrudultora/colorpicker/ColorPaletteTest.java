@@ -0,0 +1,99 @@
+package com.mrudultora.colorpicker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies ColorPalette on the host JVM.
+ */
+public class ColorPaletteTest {
+
+    @Test
+    public void add_growsAndKeepsOrder() {
+        ColorPalette colorPalette = new ColorPalette(1);
+        for (int i = 0; i < 100; i++) {
+            colorPalette.add(i);
+        }
+        colorPalette.addAll(new int[]{7, 8, 9}, 1, 2);
+        assertEquals(102, colorPalette.size());
+        assertEquals(99, colorPalette.getColor(99));
+        assertEquals(9, colorPalette.getColor(101));
+        assertEquals(102, colorPalette.toArray().length);
+    }
+
+    @Test
+    public void checked_isTrackedPerPosition() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{0xFFFF0000, 0xFF00FF00, 0xFF0000FF});
+        colorPalette.setChecked(1, true);
+        assertFalse(colorPalette.isChecked(0));
+        assertTrue(colorPalette.isChecked(1));
+        colorPalette.setChecked(1, false);
+        assertFalse(colorPalette.isChecked(1));
+    }
+
+    @Test
+    public void indexOf_returnsFirstPositionOrMinusOne() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{1, 2, 3, 2});
+        assertEquals(1, colorPalette.indexOf(2));
+        assertEquals(-1, colorPalette.indexOf(4));
+    }
+
+    @Test
+    public void findPositions_returnsDuplicatesInOrder() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{5, 0, 5, 7, 5, 0});
+        assertArrayEquals(new int[]{0, 2, 4}, colorPalette.findPositions(5));
+        assertArrayEquals(new int[]{1, 5}, colorPalette.findPositions(0));
+        assertArrayEquals(new int[0], colorPalette.findPositions(9));
+    }
+
+    @Test
+    public void occurrenceOf_countsEqualColorsBefore() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{5, 0, 5, 7, 5, 0});
+        assertEquals(0, colorPalette.occurrenceOf(0));
+        assertEquals(0, colorPalette.occurrenceOf(1));
+        assertEquals(1, colorPalette.occurrenceOf(2));
+        assertEquals(0, colorPalette.occurrenceOf(3));
+        assertEquals(2, colorPalette.occurrenceOf(4));
+        assertEquals(1, colorPalette.occurrenceOf(5));
+    }
+
+    @Test
+    public void index_isUpdatedAfterAdd() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{1, 2});
+        assertEquals(-1, colorPalette.indexOf(3));
+        colorPalette.add(3);
+        colorPalette.addAll(2, 3);
+        assertEquals(2, colorPalette.indexOf(3));
+        assertArrayEquals(new int[]{1, 3}, colorPalette.findPositions(2));
+        colorPalette.clear();
+        assertEquals(-1, colorPalette.indexOf(2));
+    }
+
+    @Test
+    public void setColors_replacesColorsAndClearsSelection() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{1, 2, 3});
+        colorPalette.setChecked(2, true);
+        colorPalette.setColors(new int[]{4, 3});
+        assertArrayEquals(new int[]{4, 3}, colorPalette.toArray());
+        assertFalse(colorPalette.isChecked(1));
+        assertEquals(1, colorPalette.indexOf(3));
+        assertEquals(-1, colorPalette.indexOf(1));
+    }
+
+    @Test
+    public void constructor_copiesColors() {
+        int[] colors = new int[]{1, 2, 3};
+        ColorPalette colorPalette = new ColorPalette(colors);
+        colors[0] = 5;
+        assertArrayEquals(new int[]{1, 2, 3}, colorPalette.toArray());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getColor_outOfRange_throws() {
+        new ColorPalette(new int[]{1}).getColor(1);
+    }
+}
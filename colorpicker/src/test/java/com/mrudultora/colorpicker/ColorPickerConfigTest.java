@@ -0,0 +1,161 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.graphics.Color;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.util.ColorItemShape;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies snapshots and caching of ColorPickerConfig.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorPickerConfigTest {
+    private static final int RED = 0xFFFF0000;
+    private static final int GREEN = 0xFF00FF00;
+    private static final int BLUE = 0xFF0000FF;
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @After
+    public void tearDown() {
+        ColorPickerConfig.clearCache();
+    }
+
+    @Test
+    public void buildConfig_equalBuilders_returnSameConfig() {
+        ColorPickerConfig first = newBuilder().buildConfig();
+        ColorPickerConfig second = newBuilder().buildConfig();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void buildConfig_isNotChangedByBuilder() {
+        ColorPickerDialog.Builder builder = newBuilder();
+        ColorPickerConfig config = builder.buildConfig();
+
+        builder.setColors(Color.BLACK, Color.WHITE).setTickColor(Color.BLACK, RED).setColumns(3);
+
+        assertArrayEquals(new int[]{RED, GREEN, BLUE}, config.getColors());
+        assertEquals(4, config.getColumns());
+        assertNotEquals(config, builder.buildConfig());
+    }
+
+    @Test
+    public void buildConfig_dimenSetToZero_isNotDefault() {
+        ColorPickerConfig defaultSize = new ColorPickerDialog.Builder(activity).setColors(RED, GREEN).buildConfig();
+        ColorPickerConfig zeroSize = new ColorPickerDialog.Builder(activity).setColors(RED, GREEN)
+                .setColorItemDimenInDp(0)
+                .setTickDimenInDp(0)
+                .buildConfig();
+
+        assertNotEquals(defaultSize, zeroSize);
+        assertFalse(defaultSize.isColorItemDimenSet());
+        assertTrue(zeroSize.isColorItemDimenSet());
+        assertTrue(zeroSize.isTickDimenSet());
+    }
+
+    @Test
+    public void dialogsOfOneConfig_doNotShareSelection() {
+        ColorPickerConfig config = newBuilder().buildConfig();
+        ColorPickerDialog first = new ColorPickerDialog(activity, config);
+        ColorPickerDialog second = new ColorPickerDialog(activity, config);
+        first.show();
+        second.show();
+
+        ColorAdapter firstAdapter = getAdapter(first);
+        firstAdapter.selectColor(BLUE);
+
+        assertEquals(2, firstAdapter.getColorPosition());
+        assertEquals(1, getAdapter(second).getColorPosition());
+        assertFalse(config.newColorPalette().isChecked(2));
+    }
+
+    @Test
+    public void adaptersOfOneConfig_shareBindProfile() {
+        ColorPickerConfig config = newBuilder().buildConfig();
+        ColorAdapter first = new ColorAdapter(config.newColorPalette(), activity, config.getColorShape(), null);
+        ColorAdapter second = new ColorAdapter(config.newColorPalette(), activity, config.getColorShape(), null);
+        config.applyTo(first);
+        config.applyTo(second);
+
+        assertSame(config.getBindProfile(first, activity.getResources()),
+                config.getBindProfile(second, activity.getResources()));
+        assertSame(config.getTickColorOverrides(), config.getTickColorOverrides());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void deprecatedConstructor_showsColorsOfList() {
+        ArrayList<ColorPaletteItemModel> colorsList = new ArrayList<>();
+        colorsList.add(new ColorPaletteItemModel(RED, false));
+        colorsList.add(new ColorPaletteItemModel(GREEN, false));
+        colorsList.add(new ColorPaletteItemModel(BLUE, false));
+        HashMap<Integer, Integer> colorItems = new HashMap<>();
+        colorItems.put(GREEN, GREEN);
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog(activity, 4, GREEN, 0, Color.BLACK,
+                ColorItemShape.SQUARE, colorsList, colorItems, null, null, null, null, null,
+                false, false, 0f, 0f);
+        colorPickerDialog.show();
+
+        ColorAdapter adapter = getAdapter(colorPickerDialog);
+        assertEquals(3, adapter.getItemCount());
+        assertEquals(1, adapter.getColorPosition());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void buildConfig_ofSubclassUsingDeprecatedFields_includesTheirColors() {
+        ColorPickerDialog.Builder builder = new ColorPickerDialog.Builder(activity) {
+            {
+                colorsList.add(new ColorPaletteItemModel(BLUE, false));
+                colorItems = new HashMap<>();
+                colorItems.put(BLUE, BLUE);
+            }
+        };
+        builder.setColors(RED, GREEN).setTickColor(Color.BLACK);
+
+        ColorPickerConfig config = builder.buildConfig();
+
+        assertArrayEquals(new int[]{RED, GREEN, BLUE}, config.getColors());
+        assertEquals(Color.BLACK, config.getTickColorOverrides().get(BLUE, 0));
+    }
+
+    private ColorPickerDialog.Builder newBuilder() {
+        return new ColorPickerDialog.Builder(activity)
+                .setColors(RED, GREEN, BLUE)
+                .setColumns(4)
+                .setDefaultSelectedColor(GREEN)
+                .setTickColor(Color.BLACK, GREEN)
+                .setColorItemDimenInDp(40);
+    }
+
+    private static ColorAdapter getAdapter(ColorPickerDialog colorPickerDialog) {
+        RecyclerView recyclerView = colorPickerDialog.getDialogView().findViewById(R.id.recyclerViewColors);
+        return (ColorAdapter) recyclerView.getAdapter();
+    }
+}
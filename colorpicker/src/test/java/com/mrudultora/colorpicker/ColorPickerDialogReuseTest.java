@@ -0,0 +1,129 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.app.AlertDialog;
+import android.app.Dialog;
+import android.content.DialogInterface;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Looper;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.listeners.OnDirectSelectColorListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that showing the same ColorPickerDialog (or ColorPickerPopUp) again reuses its dialog,
+ * view and adapter, and resets the selection.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorPickerDialogReuseTest {
+    private static final int RED = 0xFFFF0000;
+    private static final int GREEN = 0xFF00FF00;
+    private static final int BLUE = 0xFF0000FF;
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @Test
+    public void show_again_reusesDialogAndResetsSelection() {
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors(RED, GREEN, BLUE)
+                .setDefaultSelectedColor(GREEN)
+                .build();
+        colorPickerDialog.show();
+        shadowOf(Looper.getMainLooper()).idle();
+        Dialog dialog = colorPickerDialog.getDialog();
+        ColorAdapter adapter = getAdapter(colorPickerDialog);
+        adapter.selectColor(BLUE);
+        colorPickerDialog.onColorItemClick(2);
+        colorPickerDialog.dismissDialog();
+
+        colorPickerDialog.show();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertSame(dialog, colorPickerDialog.getDialog());
+        assertSame(adapter, getAdapter(colorPickerDialog));
+        assertTrue(dialog.isShowing());
+        assertEquals(1, adapter.getColorPosition());
+    }
+
+    @Test
+    public void show_again_appliesChangedListener() {
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors(RED, GREEN, BLUE)
+                .build();
+        colorPickerDialog.show();
+        assertEquals(View.VISIBLE, colorPickerDialog.getPositiveButton().getVisibility());
+        colorPickerDialog.dismissDialog();
+
+        colorPickerDialog.setOnDirectSelectColorListener(new OnDirectSelectColorListener() {
+            @Override
+            public void onDirectColorSelected(int color, int position) {
+            }
+        });
+        colorPickerDialog.show();
+
+        assertEquals(View.GONE, colorPickerDialog.getPositiveButton().getVisibility());
+        assertEquals(View.GONE, colorPickerDialog.getNegativeButton().getVisibility());
+    }
+
+    @Test
+    public void popUp_cancelThenShowAgain_startsFromDefaultColor() {
+        final int[] pickedColor = new int[1];
+        ColorPickerPopUp colorPickerPopUp = new ColorPickerPopUp(activity)
+                .setDefaultColor(BLUE)
+                .setOnPickColorListener(new ColorPickerPopUp.OnPickColorListener() {
+                    @Override
+                    public void onColorPicked(int color) {
+                        pickedColor[0] = color;
+                    }
+
+                    @Override
+                    public void onCancel() {
+                    }
+                });
+        colorPickerPopUp.show();
+        shadowOf(Looper.getMainLooper()).idle();
+        View colorPickerView = colorPickerPopUp.getDialogView().findViewById(R.id.colorPickerView);
+        MotionEvent move = MotionEvent.obtain(0L, 0L, MotionEvent.ACTION_MOVE, 1f, 1f, 0);
+        colorPickerPopUp.onTouch(colorPickerView, move);
+        move.recycle();
+        AlertDialog dialog = (AlertDialog) colorPickerPopUp.getDialog();
+        dialog.getButton(DialogInterface.BUTTON_NEGATIVE).performClick();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        colorPickerPopUp.show();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(BLUE, getBackgroundColor(colorPickerPopUp.getDialogView().findViewById(R.id.viewOldColor)));
+        assertEquals(BLUE, getBackgroundColor(colorPickerPopUp.getDialogView().findViewById(R.id.viewNewColor)));
+        dialog.getButton(DialogInterface.BUTTON_POSITIVE).performClick();
+        assertEquals(BLUE, pickedColor[0]);
+    }
+
+    private static int getBackgroundColor(View view) {
+        return ((ColorDrawable) view.getBackground()).getColor();
+    }
+
+    private static ColorAdapter getAdapter(ColorPickerDialog colorPickerDialog) {
+        RecyclerView recyclerView = colorPickerDialog.getDialogView().findViewById(R.id.recyclerViewColors);
+        return (ColorAdapter) recyclerView.getAdapter();
+    }
+}
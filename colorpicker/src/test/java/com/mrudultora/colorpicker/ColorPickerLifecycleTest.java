@@ -0,0 +1,237 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.content.ContextWrapper;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.listeners.OnPopUpInflatedListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that pickers bound to a LifecycleOwner are dismissed on stop and released on destroy.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorPickerLifecycleTest {
+    private static final int RED = 0xFFFF0000;
+    private static final int GREEN = 0xFF00FF00;
+
+    private Activity activity;
+    private TestLifecycleOwner owner;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        owner = new TestLifecycleOwner();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+    }
+
+    @Test
+    public void ownerStopped_dismissesDialog() {
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors(RED, GREEN)
+                .setLifecycleOwner(owner)
+                .build();
+        colorPickerDialog.show();
+        Dialog dialog = colorPickerDialog.getDialog();
+        assertTrue(dialog.isShowing());
+
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+
+        assertFalse(dialog.isShowing());
+    }
+
+    @Test
+    public void ownerDestroyed_releasesDialogAndShowCreatesItAgain() {
+        final ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors(RED, GREEN)
+                .setLifecycleOwner(owner)
+                .build();
+        colorPickerDialog.show();
+        shadowOf(Looper.getMainLooper()).idle();
+        View dialogView = colorPickerDialog.getDialogView();
+
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        assertDialogReleased(new Runnable() {
+            @Override
+            public void run() {
+                colorPickerDialog.getDialog();
+            }
+        });
+        colorPickerDialog.show();
+        assertNotNull(colorPickerDialog.getDialog());
+        assertTrue(colorPickerDialog.getDialog().isShowing());
+        assertNotSame(dialogView, colorPickerDialog.getDialogView());
+    }
+
+    @Test
+    public void ownerDestroyed_withFinishingActivity_releasesContext() {
+        final ColorPickerBottomSheetDialog colorPickerBottomSheetDialog = new ColorPickerBottomSheetDialog.Builder(activity)
+                .setColors(RED, GREEN)
+                .setLifecycleOwner(owner)
+                .build();
+        colorPickerBottomSheetDialog.show();
+
+        activity.finish();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        colorPickerBottomSheetDialog.show();
+
+        assertDialogReleased(new Runnable() {
+            @Override
+            public void run() {
+                colorPickerBottomSheetDialog.getDialog();
+            }
+        });
+    }
+
+    @Test
+    public void ownerDestroyed_whileLoadingColors_showAddsEveryColorOnce() throws Exception {
+        List<String> hexColors = new ArrayList<>();
+        int[] colors = new int[200];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = 0xFF000000 | i;
+            hexColors.add(String.format("#%06X", i));
+        }
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors(PaletteLoader.fromHexColors(hexColors))
+                .setLifecycleOwner(owner)
+                .build();
+        colorPickerDialog.show();
+        awaitBackground();
+        shadowOf(Looper.getMainLooper()).runOneTask();    // size known
+        shadowOf(Looper.getMainLooper()).runOneTask();    // first batch
+
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        shadowOf(Looper.getMainLooper()).idle();          // rest of the colors
+        colorPickerDialog.show();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        RecyclerView recyclerView = colorPickerDialog.getDialogView().findViewById(R.id.recyclerViewColors);
+        ColorAdapter colorAdapter = (ColorAdapter) recyclerView.getAdapter();
+        assertEquals(colors.length, colorAdapter.getItemCount());
+        assertArrayEquals(colors, colorAdapter.colorPalette.toArray());
+    }
+
+    @Test
+    public void ownerDestroyed_withWrappedFinishingActivity_releasesContext() {
+        final ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(new ContextWrapper(activity))
+                .setColors(RED, GREEN)
+                .setLifecycleOwner(owner)
+                .build();
+        colorPickerDialog.show();
+
+        activity.finish();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        colorPickerDialog.show();
+
+        assertDialogReleased(new Runnable() {
+            @Override
+            public void run() {
+                colorPickerDialog.getDialog();
+            }
+        });
+    }
+
+    @Test
+    public void popUp_ownerDestroyed_releasesViews() {
+        final ColorPickerPopUp colorPickerPopUp = new ColorPickerPopUp(activity)
+                .setSaturationValueTileCache(new SaturationValueTileCache(), false)
+                .setLifecycleOwner(owner);
+        colorPickerPopUp.show();
+        Dialog dialog = colorPickerPopUp.getDialog();
+        View dialogView = colorPickerPopUp.getDialogView();
+
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        assertFalse(dialog.isShowing());
+        assertDialogReleased(new Runnable() {
+            @Override
+            public void run() {
+                colorPickerPopUp.getDialog();
+            }
+        });
+        assertNotSame(dialogView, colorPickerPopUp.getDialogView());
+    }
+
+    @Test
+    public void popUp_ownerDestroyedWhileInflating_dropsInflatedView() throws Exception {
+        final boolean[] inflated = new boolean[1];
+        ColorPickerPopUp colorPickerPopUp = new ColorPickerPopUp(activity)
+                .setLifecycleOwner(owner)
+                .inflateAsync(new OnPopUpInflatedListener() {
+                    @Override
+                    public void onPopUpInflated(ColorPickerPopUp colorPickerPopUp) {
+                        inflated[0] = true;
+                    }
+                });
+
+        activity.finish();
+        owner.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        awaitBackground();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertFalse(inflated[0]);
+        assertNull(colorPickerPopUp.getDialogView());
+    }
+
+    @Test
+    public void popUp_doesNotKeepActivityAsItsOwnContext() {
+        ColorPickerPopUp colorPickerPopUp = new ColorPickerPopUp(activity);
+
+        assertNotSame(activity, colorPickerPopUp.getContext());
+    }
+
+    private static void awaitBackground() throws Exception {
+        ColorPickerExecutors.background().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get();
+    }
+
+    private static void assertDialogReleased(Runnable getDialog) {
+        try {
+            getDialog.run();
+            fail("dialog was not released");
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    private static final class TestLifecycleOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.appcompat.widget.AppCompatImageView;
+
+import com.mrudultora.colorpicker.listeners.OnPickerMetricsListener;
+import com.mrudultora.colorpicker.listeners.OnPopUpInflatedListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies lazy and background inflation of the ColorPickerPopUp layout.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorPickerPopUpInflationTest {
+    private Activity activity;
+    private long reportedInflationNanos;
+    private ColorPickerPopUp inflatedPopUp;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        reportedInflationNanos = -1;
+    }
+
+    @Test
+    public void show_withoutPrewarm_inflatesOnMainThread() {
+        ColorPickerPopUp colorPickerPopUp = new ColorPickerPopUp(activity).setMetricsListener(metricsListener);
+
+        colorPickerPopUp.show();
+
+        assertTrue(reportedInflationNanos > 0);
+    }
+
+    @Test
+    public void prewarm_inflatesInBackground() throws Exception {
+        ColorPickerPopUp colorPickerPopUp = ColorPickerPopUp.prewarm(activity).setMetricsListener(metricsListener);
+        colorPickerPopUp.inflateAsync(inflatedListener);
+        awaitInflation();
+
+        assertSame(colorPickerPopUp, inflatedPopUp);
+        assertNotNull(colorPickerPopUp.getDialogView().findViewById(R.id.colorPickerView));
+        assertTrue(colorPickerPopUp.getDialogView().findViewById(R.id.cursor_hue) instanceof AppCompatImageView);
+
+        colorPickerPopUp.show();
+
+        assertEquals(0, reportedInflationNanos);
+    }
+
+    @Test
+    public void inflateAsync_whenInflated_callsListenerAtOnce() {
+        ColorPickerPopUp colorPickerPopUp = new ColorPickerPopUp(activity);
+        colorPickerPopUp.getDialogView();
+
+        colorPickerPopUp.inflateAsync(inflatedListener);
+
+        assertSame(colorPickerPopUp, inflatedPopUp);
+    }
+
+    @Test
+    public void show_beforeBackgroundInflation_keepsShownView() throws Exception {
+        ColorPickerPopUp colorPickerPopUp = ColorPickerPopUp.prewarm(activity);
+        colorPickerPopUp.show();
+        View shownView = colorPickerPopUp.getDialogView();
+
+        awaitInflation();
+
+        assertSame(shownView, colorPickerPopUp.getDialogView());
+    }
+
+    private void awaitInflation() throws Exception {
+        ColorPickerExecutors.background().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private final OnPopUpInflatedListener inflatedListener = new OnPopUpInflatedListener() {
+        @Override
+        public void onPopUpInflated(ColorPickerPopUp colorPickerPopUp) {
+            inflatedPopUp = colorPickerPopUp;
+        }
+    };
+
+    private final OnPickerMetricsListener metricsListener = new OnPickerMetricsListener() {
+        @Override
+        public void onViewDrawn(long drawDurationNanos) {
+        }
+
+        @Override
+        public void onTouchCommitted(long latencyNanos) {
+        }
+
+        @Override
+        public void onItemBound(int position, long bindDurationNanos) {
+        }
+
+        @Override
+        public void onDialogShown(long inflationNanos, long showDurationNanos) {
+            reportedInflationNanos = inflationNanos;
+        }
+    };
+}
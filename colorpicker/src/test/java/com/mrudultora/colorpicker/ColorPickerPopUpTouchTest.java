@@ -0,0 +1,136 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.app.Dialog;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.shadows.ShadowDialog;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budgets of ColorPickerPopUp.onTouch under Robolectric, replaying synthetic
+ * and recorded drag traces over the shown pop up.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ColorPickerPopUpTouchTest {
+    private static final String RECORDED_TRACE = "drag_trace.csv";
+
+    private ColorPickerPopUp colorPickerPopUp;
+    private View colorPickerView;
+    private View hueSliderView;
+    private View cursorColorPicker;
+    private HotPathMeter meter;
+    private DragTrace dragTrace;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        colorPickerPopUp = new ColorPickerPopUp(activity)
+                .setDefaultColor(0xFF3F51B5)
+                .setOnPickColorListener(new ColorPickerPopUp.OnPickColorListener() {
+                    @Override
+                    public void onColorPicked(int color) {
+                    }
+
+                    @Override
+                    public void onCancel() {
+                    }
+                });
+        colorPickerPopUp.show();
+        ShadowLooper.idleMainLooper();
+        Dialog dialog = ShadowDialog.getLatestDialog();
+        colorPickerView = dialog.findViewById(R.id.colorPickerView);
+        hueSliderView = dialog.findViewById(R.id.hueSliderView);
+        cursorColorPicker = dialog.findViewById(R.id.cursor_colorpicker);
+        assertTrue(colorPickerView.getMeasuredWidth() > 0 && hueSliderView.getMeasuredHeight() > 0);
+        meter = new HotPathMeter();
+    }
+
+    @After
+    public void tearDown() {
+        if (dragTrace != null) {
+            dragTrace.recycle();
+        }
+    }
+
+    @Test
+    public void onTouch_syntheticDragOnPlane_staysWithinBudget() {
+        dragTrace = DragTrace.synthetic(400, 2, colorPickerView.getMeasuredWidth(), colorPickerView.getMeasuredHeight());
+
+        HotPathMeter.Result result = replay("ColorPickerPopUp#onTouch (plane, synthetic)", colorPickerView);
+
+        HotPathMeter.assertWithinAllocationBudget(result, 64L);
+    }
+
+    @Test
+    public void onTouch_syntheticDragOnHueSlider_staysWithinBudget() {
+        dragTrace = DragTrace.synthetic(400, 2, hueSliderView.getMeasuredWidth(), hueSliderView.getMeasuredHeight());
+
+        HotPathMeter.Result result = replay("ColorPickerPopUp#onTouch (hue, synthetic)", hueSliderView);
+
+        HotPathMeter.assertWithinAllocationBudget(result, 64L);
+    }
+
+    @Test
+    public void onTouch_recordedDragWithSmoothing_staysWithinBudget() throws IOException {
+        colorPickerPopUp.setTouchSmoothing(true);
+        dragTrace = DragTrace.recorded(RECORDED_TRACE, 3, colorPickerView.getMeasuredWidth(), colorPickerView.getMeasuredHeight());
+
+        HotPathMeter.Result result = replay("ColorPickerPopUp#onTouch (plane, recorded)", colorPickerView);
+
+        HotPathMeter.assertWithinAllocationBudget(result, 64L);
+    }
+
+    @Test
+    public void onTouch_upWithSmoothing_picksWhereFingerLifted() {
+        float width = colorPickerView.getMeasuredWidth();
+        float height = colorPickerView.getMeasuredHeight();
+        flick(width * 0.75f, height * 0.25f);
+        float expectedX = cursorColorPicker.getTranslationX();
+        float expectedY = cursorColorPicker.getTranslationY();
+
+        colorPickerPopUp.setTouchSmoothing(true);
+        flick(width * 0.75f, height * 0.25f);
+
+        assertEquals(expectedX, cursorColorPicker.getTranslationX(), 0f);
+        assertEquals(expectedY, cursorColorPicker.getTranslationY(), 0f);
+    }
+
+    /**
+     * Fast flick from the top left corner of plane, lifting the finger at (x, y).
+     */
+    private void flick(float x, float y) {
+        MotionEvent down = MotionEvent.obtain(0L, 0L, MotionEvent.ACTION_DOWN, 0f, 0f, 0);
+        MotionEvent move = MotionEvent.obtain(0L, 8L, MotionEvent.ACTION_MOVE, x / 2f, y / 2f, 0);
+        MotionEvent up = MotionEvent.obtain(0L, 16L, MotionEvent.ACTION_UP, x, y, 0);
+        colorPickerPopUp.onTouch(colorPickerView, down);
+        colorPickerPopUp.onTouch(colorPickerView, move);
+        colorPickerPopUp.onTouch(colorPickerView, up);
+        down.recycle();
+        move.recycle();
+        up.recycle();
+    }
+
+    private HotPathMeter.Result replay(String name, final View view) {
+        return meter.measure(name, dragTrace.events.length, new HotPathMeter.Operation() {
+            @Override
+            public void run(int index) {
+                colorPickerPopUp.onTouch(view, dragTrace.events[index]);
+            }
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies the trace sections of opening pickers, captured using a recording ColorPickerTracer.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorPickerTracingTest {
+    private Activity activity;
+    private RecordingTracer tracer;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        tracer = new RecordingTracer();
+        ColorPickerTracing.setTracer(tracer);
+    }
+
+    @After
+    public void tearDown() {
+        ColorPickerTracing.setTracer(null);
+        ColorPickerConfig.clearCache();
+    }
+
+    @Test
+    public void colorPickerDialog_show_emitsPipelineSections() {
+        new ColorPickerDialog.Builder(activity)
+                .setColors()
+                .build()
+                .show();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(tracer.sections.contains("ColorPickerBuilder#parseColors"));
+        assertTrue(tracer.sections.contains("ColorPickerDialog#inflate"));
+        assertTrue(tracer.sections.contains("ColorPickerDialog#show"));
+        assertTrue(tracer.sections.contains("ColorPickerDialog#createAdapter"));
+        assertEquals(1, Collections.frequency(tracer.sections, "ColorAdapter#firstBind"));
+        assertTrue(tracer.endedAsyncSections.contains("ColorPickerDialog#firstFrame"));
+        tracer.assertBalanced();
+    }
+
+    @Test
+    public void colorPickerDialog_dismissBeforeFirstFrame_endsFirstFrameSection() {
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors()
+                .build();
+        colorPickerDialog.show();
+        colorPickerDialog.dismissDialog();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(1, Collections.frequency(tracer.endedAsyncSections, "ColorPickerDialog#firstFrame"));
+        tracer.assertBalanced();
+    }
+
+    @Test
+    public void colorPickerPopUp_show_emitsPipelineSections() {
+        new ColorPickerPopUp(activity).show();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(tracer.sections.contains("ColorPickerPopUp#inflate"));
+        assertTrue(tracer.sections.contains("ColorPickerPopUp#show"));
+        assertTrue(tracer.endedAsyncSections.contains("ColorPickerPopUp#firstFrame"));
+        tracer.assertBalanced();
+    }
+
+    @Test
+    public void colorPickerView_tracesOnlyFirstDraw() {
+        ColorPickerView colorPickerView = new ColorPickerView(activity);
+        colorPickerView.layout(0, 0, 64, 64);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(64, 64, Bitmap.Config.ARGB_8888));
+
+        colorPickerView.onDraw(canvas);
+        colorPickerView.onDraw(canvas);
+
+        assertEquals(1, Collections.frequency(tracer.sections, "ColorPickerView#firstDraw"));
+        tracer.assertBalanced();
+    }
+
+    private static final class RecordingTracer implements ColorPickerTracer {
+        final List<String> sections = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> endedAsyncSections = Collections.synchronizedList(new ArrayList<String>());
+        final List<String> openAsyncSections = Collections.synchronizedList(new ArrayList<String>());
+        private final ThreadLocal<ArrayDeque<String>> open = new ThreadLocal<ArrayDeque<String>>() {
+            @Override
+            protected ArrayDeque<String> initialValue() {
+                return new ArrayDeque<>();
+            }
+        };
+
+        @Override
+        public void beginSection(String sectionName) {
+            sections.add(sectionName);
+            open.get().push(sectionName);
+        }
+
+        @Override
+        public void endSection() {
+            assertTrue("endSection() without beginSection()", !open.get().isEmpty());
+            open.get().pop();
+        }
+
+        @Override
+        public void beginAsyncSection(String sectionName, int cookie) {
+            openAsyncSections.add(sectionName + "/" + cookie);
+        }
+
+        @Override
+        public void endAsyncSection(String sectionName, int cookie) {
+            assertTrue(openAsyncSections.remove(sectionName + "/" + cookie));
+            endedAsyncSections.add(sectionName);
+        }
+
+        void assertBalanced() {
+            assertTrue("unended sections: " + open.get(), open.get().isEmpty());
+            assertTrue("unended async sections: " + openAsyncSections, openAsyncSections.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Shader;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * Allocation budgets of ColorPickerView.onDraw under Robolectric (native graphics).
+ * Drawing the same hue must not allocate.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ColorPickerViewDrawTest {
+    private static final int SIZE = 256;
+    private static final int DRAWS = 200;
+
+    private ColorPickerView colorPickerView;
+    private Canvas canvas;
+    private HotPathMeter meter;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        colorPickerView = new ColorPickerView(activity);
+        colorPickerView.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        colorPickerView.layout(0, 0, SIZE, SIZE);
+        canvas = new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+        meter = new HotPathMeter();
+    }
+
+    @Test
+    public void onDraw_sameHue_reusesShaderAndDoesNotAllocate() {
+        colorPickerView.setHue(200f);
+        colorPickerView.onDraw(canvas);
+        Shader shader = colorPickerView.paint.getShader();
+
+        HotPathMeter.Result result = meter.measure("ColorPickerView#onDraw (same hue)", DRAWS,
+                new HotPathMeter.Operation() {
+                    @Override
+                    public void run(int index) {
+                        colorPickerView.onDraw(canvas);
+                    }
+                });
+
+        assertSame(shader, colorPickerView.paint.getShader());
+        HotPathMeter.assertWithinAllocationBudget(result, 0L);
+    }
+
+    @Test
+    public void onDraw_hueScrub_staysWithinBudget() {
+        HotPathMeter.Result result = meter.measure("ColorPickerView#onDraw (hue scrub)", DRAWS,
+                new HotPathMeter.Operation() {
+                    @Override
+                    public void run(int index) {
+                        colorPickerView.setHue(index * 360f / DRAWS);
+                        colorPickerView.onDraw(canvas);
+                    }
+                });
+
+        // One LinearGradient and one ComposeShader per hue.
+        HotPathMeter.assertWithinAllocationBudget(result, 512L);
+    }
+
+    @Test
+    public void onDraw_cachedTiles_doesNotAllocate() throws Exception {
+        final SaturationValueTileCache tileCache = new SaturationValueTileCache();
+        colorPickerView.setTileCache(tileCache);
+        for (int i = 0; i < DRAWS; i++) {
+            tileCache.getTile(i * 360f / DRAWS, SIZE, SIZE);
+        }
+        // Missing tiles are rendered on the background thread.
+        ColorPickerExecutors.tileRendering().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get();
+
+        HotPathMeter.Result result = meter.measure("ColorPickerView#onDraw (cached tiles)", DRAWS,
+                new HotPathMeter.Operation() {
+                    @Override
+                    public void run(int index) {
+                        colorPickerView.setHue(index * 360f / DRAWS);
+                        colorPickerView.onDraw(canvas);
+                    }
+                });
+
+        HotPathMeter.assertWithinAllocationBudget(result, 0L);
+    }
+}
@@ -0,0 +1,84 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.os.Looper;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.listeners.OnColorItemClickListener;
+import com.mrudultora.colorpicker.util.ColorItemShape;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies prewarming of ColorPickerViewPool and reuse of pooled holders by other adapters.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ColorPickerViewPoolTest {
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @After
+    public void tearDown() {
+        ColorPickerViewPool.setEnabled(false);
+    }
+
+    @Test
+    public void prewarm_fillsPoolWhileIdle() {
+        ColorPickerViewPool.prewarm(activity, 10);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        RecyclerView.RecycledViewPool pool = ColorPickerViewPool.get();
+        assertEquals(10, pool.getRecycledViewCount(0));
+        RecyclerView.ViewHolder holder = pool.getRecycledView(0);
+        assertSame(activity.getApplicationContext(), holder.itemView.getContext());
+    }
+
+    @Test
+    public void prewarm_largeCount_createsOnlyVisibleItems() {
+        ColorPickerViewPool.prewarm(activity, 50_000);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        int count = ColorPickerViewPool.get().getRecycledViewCount(0);
+        assertTrue(count > 0);
+        assertTrue(count < 1_000);
+    }
+
+    @Test
+    public void pooledHolder_isReboundByAnotherAdapter() {
+        ColorPalette colorPalette = new ColorPalette(new int[]{0xFFFF0000, 0xFF00FF00});
+        ColorAdapter first = new ColorAdapter(colorPalette, activity, ColorItemShape.SQUARE, NO_OP_LISTENER);
+        ColorAdapter second = new ColorAdapter(colorPalette, activity, ColorItemShape.CIRCLE, NO_OP_LISTENER);
+        ColorAdapter.ViewHolder holder = first.onCreateViewHolder(new RecyclerView(activity), 0);
+        first.onBindViewHolder(holder, 0);
+        first.onViewRecycled(holder);
+        assertNull(holder.adapter);
+
+        second.onBindViewHolder(holder, 1);
+
+        assertSame(second, holder.adapter);
+        assertEquals(ColorItemShape.CIRCLE, holder.swatchView.getShape());
+        assertEquals(0xFF00FF00, holder.swatchView.getColor());
+    }
+
+    private static final OnColorItemClickListener NO_OP_LISTENER = new OnColorItemClickListener() {
+        @Override
+        public void onColorItemClick(int position) {
+        }
+    };
+}
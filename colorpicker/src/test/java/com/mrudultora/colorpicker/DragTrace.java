@@ -0,0 +1,98 @@
+package com.mrudultora.colorpicker;
+
+import android.view.MotionEvent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+/**
+ * A drag gesture as a list of MotionEvents (ACTION_DOWN, ACTION_MOVE..., ACTION_UP), built from
+ * samples relative to the size of view. Several samples can be batched in one ACTION_MOVE (as
+ * historical samples), like the input system does when touch rate is higher than frame rate.
+ * <p>
+ * Events are obtained up front, so replaying a trace does not allocate.
+ */
+final class DragTrace {
+    final MotionEvent[] events;
+
+    private DragTrace(long[] times, float[] xs, float[] ys, float width, float height, int samplesPerEvent) {
+        int samples = times.length;
+        ArrayList<MotionEvent> list = new ArrayList<>();
+        long downTime = times[0];
+        list.add(MotionEvent.obtain(downTime, times[0], MotionEvent.ACTION_DOWN, xs[0] * width, ys[0] * height, 0));
+        MotionEvent move = null;
+        for (int i = 1; i < samples - 1; i++) {
+            if (move == null) {
+                move = MotionEvent.obtain(downTime, times[i], MotionEvent.ACTION_MOVE, xs[i] * width, ys[i] * height, 0);
+            } else {
+                move.addBatch(times[i], xs[i] * width, ys[i] * height, 1f, 1f, 0);
+            }
+            if (move.getHistorySize() + 1 == samplesPerEvent) {
+                list.add(move);
+                move = null;
+            }
+        }
+        if (move != null) {
+            list.add(move);
+        }
+        int last = samples - 1;
+        list.add(MotionEvent.obtain(downTime, times[last], MotionEvent.ACTION_UP, xs[last] * width, ys[last] * height, 0));
+        events = list.toArray(new MotionEvent[0]);
+    }
+
+    /**
+     * Diagonal zig-zag over the whole view, sampled every 8 ms (120 Hz).
+     */
+    static DragTrace synthetic(int samples, int samplesPerEvent, float width, float height) {
+        long[] times = new long[samples];
+        float[] xs = new float[samples];
+        float[] ys = new float[samples];
+        for (int i = 0; i < samples; i++) {
+            float progress = (float) i / (samples - 1);
+            times[i] = i * 8L;
+            xs[i] = progress;
+            ys[i] = (i % 20) / 19f;
+        }
+        return new DragTrace(times, xs, ys, width, height, samplesPerEvent);
+    }
+
+    /**
+     * Loads a recorded trace from test resources. Every line is "eventTimeMillis,x,y", where x and y
+     * are relative to the size of view. Lines starting with # are ignored.
+     */
+    static DragTrace recorded(String resource, int samplesPerEvent, float width, float height) throws IOException {
+        InputStream inputStream = DragTrace.class.getResourceAsStream(resource);
+        if (inputStream == null) {
+            throw new IOException("Trace not found: " + resource);
+        }
+        ArrayList<String[]> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, Charset.forName("UTF-8")))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line.split(","));
+                }
+            }
+        }
+        long[] times = new long[lines.size()];
+        float[] xs = new float[lines.size()];
+        float[] ys = new float[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            times[i] = Long.parseLong(lines.get(i)[0]);
+            xs[i] = Float.parseFloat(lines.get(i)[1]);
+            ys[i] = Float.parseFloat(lines.get(i)[2]);
+        }
+        return new DragTrace(times, xs, ys, width, height, samplesPerEvent);
+    }
+
+    void recycle() {
+        for (MotionEvent event : events) {
+            event.recycle();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mrudultora.colorpicker;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures time and allocated bytes per operation of a hot path (bind, draw, touch) on the
+ * current thread, and fails if the allocation budget is exceeded.
+ * <p>
+ * Allocations are counted with com.sun.management.ThreadMXBean. The bytes allocated by the
+ * measurement itself are calibrated and subtracted. If the JVM does not support allocation
+ * counting, nothing is checked. Times are only reported in the failure message, as wall clock
+ * times of a loaded machine are not stable enough to fail on; the JMH benchmarks measure them.
+ */
+final class HotPathMeter {
+    private static final int WARMUP_ROUNDS = 3;
+
+    interface Operation {
+        void run(int index);
+    }
+
+    static final class Result {
+        final String name;
+        final int operations;
+        final double nanosPerOperation;
+        final double bytesPerOperation;     // -1 if allocation counting is not supported.
+
+        Result(String name, int operations, double nanosPerOperation, double bytesPerOperation) {
+            this.name = name;
+            this.operations = operations;
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: %d ops, %.1f us/op, %.1f bytes/op",
+                    name, operations, nanosPerOperation / 1000d, bytesPerOperation);
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final long threadId = Thread.currentThread().getId();
+    private final long overheadBytes;
+
+    HotPathMeter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadMXBean = (com.sun.management.ThreadMXBean) bean;
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            threadMXBean = null;
+        }
+        overheadBytes = calibrate();
+    }
+
+    /**
+     * Runs the operation for indexes 0 to operations - 1, a few times for warm up and then once
+     * more while measuring.
+     */
+    Result measure(String name, int operations, Operation operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < operations; i++) {
+                operation.run(i);
+            }
+        }
+        long startBytes = allocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            operation.run(i);
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes - overheadBytes;
+        return new Result(name, operations, (double) nanos / operations,
+                threadMXBean == null ? -1d : (double) Math.max(0L, bytes) / operations);
+    }
+
+    static void assertWithinAllocationBudget(Result result, long maxBytesPerOperation) {
+        if (result.bytesPerOperation >= 0d) {
+            assertTrue(result + " exceeds the allocation budget of " + maxBytesPerOperation + " bytes/op",
+                    result.bytesPerOperation <= maxBytesPerOperation);
+        }
+    }
+
+    private long allocatedBytes() {
+        return threadMXBean == null ? 0L : threadMXBean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Bytes allocated by a pair of allocatedBytes() calls with nothing in between.
+     */
+    private long calibrate() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - start);
+        }
+        return overhead;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies the orientation of HueSliderView and the hue strip drawn for it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class HueSliderViewTest {
+    private static final int LENGTH = 360;
+    private static final int THICKNESS = 10;
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @Test
+    public void orientationAttribute_horizontal_isApplied() {
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(android.R.attr.orientation, "horizontal")
+                .build();
+
+        HueSliderView hueSliderView = new HueSliderView(activity, attrs);
+
+        assertEquals(HueSliderView.HORIZONTAL, hueSliderView.getOrientation());
+    }
+
+    @Test
+    public void onDraw_horizontal_drawsHueAlongWidth() {
+        HueSliderView hueSliderView = new HueSliderView(activity);
+        hueSliderView.setOrientation(HueSliderView.HORIZONTAL);
+        Bitmap bitmap = draw(hueSliderView, LENGTH, THICKNESS);
+
+        assertColorNear(0xFFFF0000, bitmap.getPixel(0, THICKNESS / 2));
+        assertColorNear(0xFF00FFFF, bitmap.getPixel(LENGTH / 2, THICKNESS / 2));
+        // Whole column has the same hue.
+        assertEquals(bitmap.getPixel(LENGTH / 2, 0), bitmap.getPixel(LENGTH / 2, THICKNESS - 1));
+    }
+
+    @Test
+    public void onDraw_vertical_drawsHueAlongHeight() {
+        HueSliderView hueSliderView = new HueSliderView(activity);
+        Bitmap bitmap = draw(hueSliderView, THICKNESS, LENGTH);
+
+        assertColorNear(0xFFFF0000, bitmap.getPixel(THICKNESS / 2, 0));
+        assertColorNear(0xFF00FFFF, bitmap.getPixel(THICKNESS / 2, LENGTH / 2));
+    }
+
+    private static Bitmap draw(HueSliderView hueSliderView, int width, int height) {
+        hueSliderView.layout(0, 0, width, height);
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        hueSliderView.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private static void assertColorNear(int expected, int actual) {
+        for (int shift = 0; shift <= 16; shift += 8) {
+            assertEquals(expected >> shift & 0xFF, actual >> shift & 0xFF, 8);
+        }
+    }
+}
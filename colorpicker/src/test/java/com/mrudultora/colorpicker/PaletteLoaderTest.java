@@ -0,0 +1,176 @@
+package com.mrudultora.colorpicker;
+
+import android.app.Activity;
+import android.os.Looper;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.mrudultora.colorpicker.listeners.OnPaletteLoadListener;
+import com.mrudultora.colorpicker.util.ColorItemShape;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that PaletteLoader loads in background and delivers the colors in order on main thread.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PaletteLoaderTest {
+
+    @Test
+    public void fromHexColors_deliversAllColorsInBatches() throws Exception {
+        List<String> hexColors = new ArrayList<>();
+        int[] expected = new int[200];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = 0xFF000000 | i;
+            hexColors.add(String.format("#%06X", i));
+        }
+        RecordingListener listener = new RecordingListener();
+
+        PaletteLoader paletteLoader = PaletteLoader.fromHexColors(hexColors);
+        paletteLoader.addListener(listener);
+        awaitLoading();
+
+        assertTrue(paletteLoader.isFinished());
+        assertEquals(200, listener.size);
+        assertTrue(listener.batches > 1);
+        assertTrue(listener.finished);
+        assertNull(listener.error);
+        assertArrayEquals(expected, listener.colors.toArray());
+        assertArrayEquals(expected, paletteLoader.getColors());
+    }
+
+    @Test
+    public void fromHexColors_invalidColor_isSkippedAndReported() throws Exception {
+        List<String> hexColors = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            hexColors.add(i == 70 ? "not a color" : "#FF0000");
+        }
+        RecordingListener listener = new RecordingListener();
+
+        PaletteLoader paletteLoader = PaletteLoader.fromHexColors(hexColors);
+        paletteLoader.addListener(listener);
+        awaitLoading();
+
+        assertEquals(99, paletteLoader.getLoadedCount());
+        assertEquals(99, listener.colors.size());
+        assertNotNull(listener.error);
+    }
+
+    @Test
+    public void addListener_afterLoading_replaysEverything() throws Exception {
+        List<String> hexColors = new ArrayList<>();
+        hexColors.add("#FF0000");
+        hexColors.add("#00FF00");
+        PaletteLoader paletteLoader = PaletteLoader.fromHexColors(hexColors);
+        awaitLoading();
+        RecordingListener listener = new RecordingListener();
+
+        paletteLoader.addListener(listener);
+
+        assertEquals(2, listener.size);
+        assertArrayEquals(new int[]{0xFFFF0000, 0xFF00FF00}, listener.colors.toArray());
+        assertTrue(listener.finished);
+    }
+
+    @Test
+    public void loadTarget_fillsPlaceholdersOfAdapter() throws Exception {
+        List<String> hexColors = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            hexColors.add("#0000FF");
+        }
+        ColorPalette colorPalette = new ColorPalette(new int[]{0xFFFF0000});
+        PaletteLoadTarget paletteLoadTarget = new PaletteLoadTarget(colorPalette, 0);
+        ColorAdapter colorAdapter = new ColorAdapter(colorPalette, RuntimeEnvironment.getApplication(), ColorItemShape.SQUARE, null);
+        paletteLoadTarget.setAdapter(colorAdapter);
+
+        PaletteLoader.fromHexColors(hexColors).addListener(paletteLoadTarget);
+        awaitBackground();
+        shadowOf(Looper.getMainLooper()).runOneTask();    // size known
+        assertEquals(151, colorAdapter.getItemCount());
+        assertEquals(1, colorPalette.size());
+
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(151, colorAdapter.getItemCount());
+        assertEquals(151, colorPalette.size());
+        assertEquals(0xFF0000FF, colorPalette.getColor(150));
+    }
+
+    @Test
+    public void submitColors_whileLoading_stopsAddingLoadedColors() throws Exception {
+        List<String> hexColors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            hexColors.add("#0000FF");
+        }
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        ColorPickerDialog colorPickerDialog = new ColorPickerDialog.Builder(activity)
+                .setColors(PaletteLoader.fromHexColors(hexColors))
+                .build();
+        colorPickerDialog.show();
+        awaitBackground();
+        shadowOf(Looper.getMainLooper()).runOneTask();    // size known
+        shadowOf(Looper.getMainLooper()).runOneTask();    // first batch
+
+        colorPickerDialog.submitColors(new int[]{0xFFFF0000, 0xFF00FF00});
+        awaitLoading();
+
+        RecyclerView recyclerView = colorPickerDialog.getDialogView().findViewById(R.id.recyclerViewColors);
+        ColorAdapter colorAdapter = (ColorAdapter) recyclerView.getAdapter();
+        assertEquals(2, colorAdapter.getItemCount());
+        assertArrayEquals(new int[]{0xFFFF0000, 0xFF00FF00}, colorAdapter.colorPalette.toArray());
+    }
+
+    private static void awaitLoading() throws Exception {
+        awaitBackground();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static void awaitBackground() throws Exception {
+        ColorPickerExecutors.background().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get();
+    }
+
+    private static final class RecordingListener implements OnPaletteLoadListener {
+        final ColorPalette colors = new ColorPalette();
+        int size = -1;
+        int batches = 0;
+        boolean finished = false;
+        Exception error;
+
+        @Override
+        public void onPaletteSizeKnown(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void onColorsLoaded(int[] colors, int offset, int count) {
+            assertEquals(this.colors.size(), offset);
+            this.colors.addAll(colors, offset, count);
+            batches++;
+        }
+
+        @Override
+        public void onPaletteLoaded(Exception error) {
+            finished = true;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mrudultora.colorpicker;
+
+import android.graphics.Bitmap;
+import android.os.Looper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Verifies that SaturationValueTileCache renders missing tiles in background and keeps the tiles
+ * of other buckets when the size changes.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SaturationValueTileCacheTest {
+    private static final int TILE_SIZE = 32;
+
+    private SaturationValueTileCache tileCache;
+    private int renderedCount;
+
+    @Before
+    public void setUp() {
+        tileCache = new SaturationValueTileCache(SaturationValueTileCache.DEFAULT_MAX_BYTES, 360, TILE_SIZE);
+        renderedCount = 0;
+    }
+
+    @Test
+    public void getTile_whenMissing_returnsNullAndRendersInBackground() throws Exception {
+        assertNull(tileCache.getTile(120f, 100, 100, tileRendered));
+        awaitRendering();
+
+        Bitmap tile = tileCache.getTile(120f, 100, 100, tileRendered);
+        assertNotNull(tile);
+        assertEquals(TILE_SIZE, tile.getWidth());
+        assertEquals(1, renderedCount);
+    }
+
+    @Test
+    public void getTile_whenQueued_rendersTileOnce() throws Exception {
+        tileCache.getTile(120f, 100, 100, tileRendered);
+        tileCache.getTile(120f, 100, 100, tileRendered);
+        awaitRendering();
+
+        assertEquals(1, renderedCount);
+    }
+
+    @Test
+    public void getTile_ofAnotherSize_keepsTilesOfOtherBuckets() throws Exception {
+        tileCache.getTile(0f, 100, 100);
+        tileCache.getTile(180f, 100, 100);
+        awaitRendering();
+
+        // Smaller view, tiles are rendered at its size now.
+        assertNull(tileCache.getTile(0f, 20, 20));
+        awaitRendering();
+
+        assertNotNull(tileCache.getTile(0f, 20, 20));
+        assertTrue(tileCache.getUsedBytes() >= TILE_SIZE * TILE_SIZE * 4 + 20 * 20 * 4);
+        // Tile of the previous size is dropped only when its bucket is requested.
+        assertNull(tileCache.getTile(180f, 20, 20));
+        assertEquals(20 * 20 * 4, tileCache.getUsedBytes());
+    }
+
+    @Test
+    public void render_ofPreviousSize_isDropped() throws Exception {
+        tileCache.getTile(60f, 100, 100);
+        tileCache.getTile(240f, 20, 20);
+        awaitRendering();
+
+        assertNull(tileCache.getTile(60f, 20, 20));
+        awaitRendering();
+        assertNotNull(tileCache.getTile(240f, 20, 20));
+    }
+
+    @Test
+    public void prewarm_rendersOnlyTilesAroundHue() throws Exception {
+        tileCache.prewarm(100, 100, 180f);
+        awaitRendering();
+
+        assertEquals(SaturationValueTileCache.DEFAULT_PREWARM_TILES * TILE_SIZE * TILE_SIZE * 4, tileCache.getUsedBytes());
+        assertNotNull(tileCache.getTile(180f + SaturationValueTileCache.DEFAULT_PREWARM_TILES / 2 - 1, 100, 100));
+        assertNull(tileCache.getTile(0f, 100, 100));
+    }
+
+    private void awaitRendering() throws Exception {
+        ColorPickerExecutors.tileRendering().submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                return null;
+            }
+        }).get();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private final Runnable tileRendered = new Runnable() {
+        @Override
+        public void run() {
+            renderedCount++;
+        }
+    };
+}
@@ -0,0 +1,124 @@
+package com.mrudultora.colorpicker.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies ColorCodec on the host JVM.
+ */
+public class ColorCodecTest {
+
+    @Test
+    public void parse_hex_hasAlphaLast() {
+        assertColor(0xFFFF0000, "#f00");
+        assertColor(0x88FF0000, "#f008");
+        assertColor(0xFF12AB34, "#12ab34");
+        assertColor(0x8012AB34, "#12AB3480");
+        assertColor(0xFFFF0000, "  #FF0000\n");
+    }
+
+    @Test
+    public void parseAndroid_hex_hasAlphaFirst() {
+        assertEquals(0xFFFF0000L, ColorCodec.parseAndroid("#f00"));
+        assertEquals(0x88FF0000L, ColorCodec.parseAndroid("#8f00"));
+        assertEquals(0xFF12AB34L, ColorCodec.parseAndroid("#12ab34"));
+        assertEquals(0x8012AB34L, ColorCodec.parseAndroid("#8012AB34"));
+        assertEquals(0x80FF0000L, ColorCodec.parseAndroid("rgba(255, 0, 0, 0.5)"));
+        assertEquals(0x8012AB34L, ColorCodec.parseAndroid("a,#8012AB34", 2, 11));
+    }
+
+    @Test
+    public void parse_rgbAndHsl() {
+        assertColor(0xFFFF0000, "rgb(255, 0, 0)");
+        assertColor(0x80FF0000, "rgba(255,0,0,0.5)");
+        assertColor(0x80FF0000, "rgb(100% 0% 0% / 50%)");
+        assertColor(0xFF0B141E, "RGB(10.5, 20.4, 30)");
+        assertColor(0xFFFF0000, "rgb(300, -5, 0)");
+        assertColor(0xFF00FF00, "hsl(120, 100%, 50%)");
+        assertColor(0xFF008000, "hsl(120deg 100% 25%)");
+        assertColor(0xFF0000FF, "hsla(-120, 100%, 50%, 1)");
+    }
+
+    @Test
+    public void parse_names() {
+        assertColor(0xFFFF0000, "red");
+        assertColor(0xFF00FF00, "Green");
+        assertColor(0xFF888888, "GREY");
+        assertColor(0x00000000, "transparent");
+    }
+
+    @Test
+    public void parse_invalid_returnsInvalid() {
+        String[] invalid = {null, "", " ", "#", "#ggg", "#12345", "#1234567", "red1", "rgb(1,2)",
+                "rgb(1,2,3,4,5)", "rgb(1,,2,3)", "rgb(1deg,2,3)", "hsl(1, 2deg, 3%)", "foo(1,2,3)",
+                "rgb(1,2,3", "rgb(1a,2,3)"};
+        for (String text : invalid) {
+            assertEquals(text, ColorCodec.INVALID, ColorCodec.parse(text));
+        }
+    }
+
+    @Test
+    public void parse_range_doesNotNeedSubstring() {
+        String text = "a,#00FF00,rgb(0, 0, 255),b";
+        assertColor(0xFF00FF00, ColorCodec.parse(text, 2, 9));
+        assertColor(0xFF0000FF, ColorCodec.parse(text, 10, 24));
+        assertEquals(ColorCodec.INVALID, ColorCodec.parse(text, 0, 9));
+        assertEquals(ColorCodec.INVALID, ColorCodec.parse(text, 20, 99));
+    }
+
+    @Test
+    public void parseOrDefault_returnsDefaultForInvalid() {
+        assertEquals(0xFF00FF00, ColorCodec.parseOrDefault("#0f0", 7));
+        assertEquals(7, ColorCodec.parseOrDefault("#0f", 7));
+    }
+
+    @Test
+    public void parseAll_reportsEveryInvalidEntry() {
+        List<String> texts = Arrays.asList("#f00", "bad", "blue", "#12", "hsl(0, 0%, 100%)");
+        int[] colors = new int[texts.size() + 1];
+        BitSet invalid = new BitSet();
+
+        int invalidCount = ColorCodec.parseAll(texts, colors, 1, invalid);
+
+        assertEquals(2, invalidCount);
+        assertTrue(invalid.get(1));
+        assertTrue(invalid.get(3));
+        assertEquals(2, invalid.cardinality());
+        assertArrayEquals(new int[]{0, 0xFFFF0000, 0, 0xFF0000FF, 0, 0xFFFFFFFF}, colors);
+    }
+
+    @Test
+    public void formatHex_writesIntoBuffer() {
+        char[] buffer = new char[ColorCodec.MAX_HEX_LENGTH + 2];
+        int length = ColorCodec.formatHex(0x80FF1234, true, buffer, 2);
+        assertEquals(9, length);
+        assertEquals("#80FF1234", new String(buffer, 2, length));
+        length = ColorCodec.formatHex(0x80FF1234, false, buffer, 0);
+        assertEquals("#FF1234", new String(buffer, 0, length));
+        assertEquals("#00AB12", ColorCodec.toHex(0xFF00AB12, false));
+    }
+
+    @Test
+    public void formatHex_roundTrips() {
+        char[] buffer = new char[ColorCodec.MAX_HEX_LENGTH];
+        for (int color = 0; color <= 0x7FFFFFFF - 0x01030507; color += 0x01030507) {
+            int length = ColorCodec.formatHex(color, true, buffer, 0);
+            assertEquals(color & 0xFFFFFFFFL, ColorCodec.parseAndroid(new String(buffer, 0, length)));
+        }
+    }
+
+    private static void assertColor(int expected, String text) {
+        assertEquals(text, expected & 0xFFFFFFFFL, ColorCodec.parse(text));
+    }
+
+    private static void assertColor(int expected, long actual) {
+        assertEquals(expected & 0xFFFFFFFFL, actual);
+    }
+}
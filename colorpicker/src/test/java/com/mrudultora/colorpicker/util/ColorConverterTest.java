@@ -0,0 +1,108 @@
+package com.mrudultora.colorpicker.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies ColorConverter on the host JVM against known values and java.awt.Color.
+ */
+public class ColorConverterTest {
+
+    @Test
+    public void hsvToColor_primaryAndSecondaryColors() {
+        assertEquals(0xFFFF0000, ColorConverter.hsvToColor(0f, 1f, 1f));
+        assertEquals(0xFFFFFF00, ColorConverter.hsvToColor(60f, 1f, 1f));
+        assertEquals(0xFF00FF00, ColorConverter.hsvToColor(120f, 1f, 1f));
+        assertEquals(0xFF00FFFF, ColorConverter.hsvToColor(180f, 1f, 1f));
+        assertEquals(0xFF0000FF, ColorConverter.hsvToColor(240f, 1f, 1f));
+        assertEquals(0xFFFF00FF, ColorConverter.hsvToColor(300f, 1f, 1f));
+        assertEquals(0xFFFF0000, ColorConverter.hsvToColor(360f, 1f, 1f));
+    }
+
+    @Test
+    public void hsvToColor_grayAndAlpha() {
+        assertEquals(0xFFFFFFFF, ColorConverter.hsvToColor(200f, 0f, 1f));
+        assertEquals(0xFF000000, ColorConverter.hsvToColor(200f, 1f, 0f));
+        assertEquals(0xFF808080, ColorConverter.hsvToColor(0f, 0f, 0.5f));
+        assertEquals(0x40FF0000, ColorConverter.hsvToColor(0x40, 0f, 1f, 1f));
+    }
+
+    @Test
+    public void hsvToColor_matchesAwtWithinOne() {
+        for (int h = 0; h < 360; h += 7) {
+            for (int s = 0; s <= 100; s += 5) {
+                for (int v = 0; v <= 100; v += 5) {
+                    int expected = java.awt.Color.HSBtoRGB(h / 360f, s / 100f, v / 100f);
+                    int actual = ColorConverter.hsvToColor(h, s / 100f, v / 100f);
+                    assertChannelsClose(expected, actual, 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void colorToHsv_matchesAwt() {
+        float[] hsv = new float[3];
+        float[] hsb = new float[3];
+        for (int color = 0; color <= 0xFFFFFF; color += 0x010307) {
+            ColorConverter.colorToHsv(0xFF000000 | color, hsv);
+            java.awt.Color.RGBtoHSB(ColorConverter.red(color), ColorConverter.green(color), ColorConverter.blue(color), hsb);
+            if (hsv[1] != 0f) {
+                assertEquals(hsb[0] * 360f, hsv[0], 0.01f);
+            }
+            assertEquals(hsb[1], hsv[1], 0.0001f);
+            assertEquals(hsb[2], hsv[2], 0.0001f);
+        }
+    }
+
+    @Test
+    public void colorToHsv_roundTrip() {
+        float[] hsv = new float[3];
+        for (int color = 0; color <= 0xFFFFFF; color += 0x000F0B) {
+            int argb = 0xFF000000 | color;
+            ColorConverter.colorToHsv(argb, hsv);
+            assertEquals(argb, ColorConverter.hsvToColor(hsv[0], hsv[1], hsv[2]));
+        }
+    }
+
+    @Test
+    public void hueToColor_closeToHsvToColor() {
+        for (float hue = 0f; hue < 360f; hue += 0.37f) {
+            assertChannelsClose(ColorConverter.hsvToColor(hue, 1f, 1f), ColorConverter.hueToColor(hue), 1);
+        }
+        assertEquals(0xFFFF0000, ColorConverter.hueToColor(360f));
+        assertEquals(0xFFFF00FF, ColorConverter.hueToColor(-60f));
+    }
+
+    @Test
+    public void hsl_knownValuesAndRoundTrip() {
+        assertEquals(0xFFFF0000, ColorConverter.hslToColor(0f, 1f, 0.5f));
+        assertEquals(0xFF808080, ColorConverter.hslToColor(120f, 0f, 0.5f));
+        assertEquals(0xFFFFFFFF, ColorConverter.hslToColor(240f, 1f, 1f));
+        assertEquals(0xFF000080, ColorConverter.hslToColor(240f, 1f, 0.25f));
+
+        float[] hsl = new float[3];
+        for (int color = 0; color <= 0xFFFFFF; color += 0x000F0B) {
+            int argb = 0xFF000000 | color;
+            ColorConverter.colorToHsl(argb, hsl);
+            assertChannelsClose(argb, ColorConverter.hslToColor(hsl[0], hsl[1], hsl[2]), 1);
+        }
+    }
+
+    @Test
+    public void withAlpha_replacesAlphaOnly() {
+        assertEquals(0x80123456, ColorConverter.withAlpha(0xFF123456, 0x80));
+        assertEquals(0x00123456, ColorConverter.withAlpha(0x7F123456, 0));
+        assertEquals(0x80, ColorConverter.alpha(0x80123456));
+    }
+
+    private static void assertChannelsClose(int expected, int actual, int tolerance) {
+        for (int shift = 0; shift <= 24; shift += 8) {
+            int e = (expected >> shift) & 0xFF;
+            int a = (actual >> shift) & 0xFF;
+            assertTrue(String.format("expected %08X but was %08X", expected, actual), Math.abs(e - a) <= tolerance);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mrudultora.colorpicker.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies IntIntMap on the host JVM against HashMap.
+ */
+public class IntIntMapTest {
+
+    @Test
+    public void putAndGet_matchHashMap() {
+        IntIntMap map = new IntIntMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            int key = random.nextInt(5000) | (random.nextBoolean() ? 0xFF000000 : 0);
+            int value = random.nextInt();
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), -1));
+        }
+        for (int i = 0; i < 1000; i++) {
+            int key = 0x00FF0000 | i;
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void zeroKey_isSupported() {
+        IntIntMap map = new IntIntMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(7, map.get(0, 7));
+        map.put(0, 1);
+        map.put(0, 2);
+        assertTrue(map.containsKey(0));
+        assertEquals(2, map.get(0, 7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void keys_returnsEveryKeyOnce() {
+        IntIntMap map = new IntIntMap(2);
+        map.put(0, 1);
+        map.put(0xFFFF0000, 2);
+        map.put(0xFF00FF00, 3);
+        map.put(0xFFFF0000, 4);
+
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+
+        assertArrayEquals(new int[]{0xFF00FF00, 0xFFFF0000, 0}, keys);
+    }
+
+    @Test
+    public void clear_removesAllKeys() {
+        IntIntMap map = new IntIntMap(2);
+        map.put(0, 1);
+        map.put(0xFFFF0000, 1);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0xFFFF0000));
+        assertFalse(map.containsKey(0));
+    }
+}